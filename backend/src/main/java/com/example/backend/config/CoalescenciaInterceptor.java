@@ -0,0 +1,60 @@
+package com.example.backend.config;
+
+import java.security.Principal;
+import java.util.Map;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.backend.service.CoalescenciaService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Leitura das próprias escritas com o agrupamento de PUTs ligado: antes de qualquer requisição
+ * do usuário em /api/compromissos, exceto o próprio PUT agrupável, grava os seus pendentes.
+ * Uma requisição a /api/compromissos/{id} recebe 409 se a gravação agrupada daquele id falhou.
+ * Registrado pelo {@link WebConfig}.
+ */
+public class CoalescenciaInterceptor implements HandlerInterceptor {
+
+    private static final String PUT_AGRUPAVEL = "/api/compromissos/{id}";
+
+    private final CoalescenciaService coalescenciaService;
+
+    public CoalescenciaInterceptor(CoalescenciaService coalescenciaService) {
+        this.coalescenciaService = coalescenciaService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Principal principal = request.getUserPrincipal();
+        if (principal == null || !coalescenciaService.isAtiva()) {
+            return true;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        boolean agrupavel = "PUT".equals(request.getMethod()) && PUT_AGRUPAVEL.equals(padrao);
+        if (!agrupavel) {
+            coalescenciaService.descarregar(principal.getName());
+            // /{id} e /{id}/posicao; o {id} dos jobs de exportação é de outro recurso
+            Long id = padrao instanceof String p && p.startsWith(PUT_AGRUPAVEL) ? idDoCaminho(request) : null;
+            if (id != null) {
+                coalescenciaService.verificarFalha(id, principal.getName());
+            }
+        }
+        return true;
+    }
+
+    private static Long idDoCaminho(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variaveis =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = variaveis != null ? variaveis.get("id") : null;
+        try {
+            return id != null ? Long.valueOf(id) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
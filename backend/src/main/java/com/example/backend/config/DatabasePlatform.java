@@ -0,0 +1,49 @@
+package com.example.backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifica o banco em uso (PostgreSQL em produção, H2 nos testes) a partir dos
+ * metadados JDBC, para que recursos específicos do PostgreSQL possam ter um
+ * caminho alternativo portável.
+ */
+@Component
+public class DatabasePlatform {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabasePlatform.class);
+
+    private final DataSource dataSource;
+
+    private volatile Boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isPostgres() {
+        Boolean resultado = postgres;
+        if (resultado == null) {
+            resultado = detectarPostgres();
+            postgres = resultado;
+        }
+        return resultado;
+    }
+
+    private boolean detectarPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            String produto = connection.getMetaData().getDatabaseProductName();
+            logger.info("Banco de dados detectado: {}", produto);
+            return "PostgreSQL".equalsIgnoreCase(produto);
+        } catch (SQLException e) {
+            logger.warn("Não foi possível identificar o banco de dados; usando caminho portável", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * DDL específica do PostgreSQL que o Hibernate ({@code ddl-auto=update}) não sabe gerar:
+ * colunas geradas, índices GIN, índices parciais etc.
+ *
+ * Depende do {@link EntityManagerFactory} para rodar depois da atualização de schema do
+ * Hibernate e antes do servidor aceitar requisições. Todos os comandos são idempotentes
+ * ({@code IF NOT EXISTS}); uma falha é registrada e não impede a aplicação de subir.
+ */
+@Component
+public class PostgresSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresSchemaInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    public PostgresSchemaInitializer(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform,
+                                     EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        if (!databasePlatform.isPostgres()) {
+            return;
+        }
+
+        // Os ids de compromisso passaram de IDENTITY para a sequência compromisso_seq (pooled,
+        // incremento 50): se a sequência ainda não passou dos ids existentes, avança-a
+        executar("SELECT setval('compromisso_seq', (SELECT MAX(id) FROM compromisso) + 50) " +
+                "WHERE (SELECT MAX(id) FROM compromisso) + 50 > (SELECT last_value FROM compromisso_seq)");
+
+        // Busca textual: tsvector gerado (português), título com peso maior que a descrição
+        executar("ALTER TABLE compromisso ADD COLUMN IF NOT EXISTS busca tsvector GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') || " +
+                "setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')) STORED");
+        // Com btree_gin o índice já filtra pelo usuário; sem a extensão, GIN só sobre o tsvector
+        if (executar("CREATE EXTENSION IF NOT EXISTS btree_gin")) {
+            executar("CREATE INDEX IF NOT EXISTS idx_compromisso_busca ON compromisso USING GIN (user_id, busca)");
+        } else {
+            executar("CREATE INDEX IF NOT EXISTS idx_compromisso_busca ON compromisso USING GIN (busca)");
+        }
+
+        // Filtro ?urgente=true: poucos itens são urgentes, então o índice parcial é pequeno
+        executar("CREATE INDEX IF NOT EXISTS idx_compromisso_usuario_urgente_data_hora " +
+                "ON compromisso (user_id, data_hora) WHERE urgente");
+    }
+
+    private boolean executar(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao aplicar DDL do PostgreSQL [{}]: {}", sql, e.getMostSpecificCause().getMessage());
+            return false;
+        }
+    }
+}
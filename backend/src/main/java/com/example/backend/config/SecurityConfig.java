@@ -97,6 +97,8 @@ public class SecurityConfig {
             
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.POST, "/api/auth/**").permitAll()
+                // Feed iCalendar: autenticado pelo token da URL (CalendarioService)
+                .requestMatchers(HttpMethod.GET, "/api/calendario/*.ics").permitAll()
                 .anyRequest().authenticated()
             );
 
@@ -178,11 +180,11 @@ public class SecurityConfig {
         configuration.setAllowedMethods(List.of(allowedMethodsStr.split(",")));
         
         String allowedHeadersStr = environment.getProperty("cors.allowed-headers", 
-                "Authorization,Content-Type,X-Requested-With,X-XSRF-TOKEN");
+                "Authorization,Content-Type,X-Requested-With,X-XSRF-TOKEN,If-None-Match,If-Match,Idempotency-Key");
         configuration.setAllowedHeaders(List.of(allowedHeadersStr.split(",")));
         
         String exposedHeadersStr = environment.getProperty("cors.exposed-headers", 
-                "Authorization,X-XSRF-TOKEN");
+                "Authorization,X-XSRF-TOKEN,ETag,Idempotent-Replayed");
         configuration.setExposedHeaders(List.of(exposedHeadersStr.split(",")));
         
         boolean allowCredentials = environment.getProperty("cors.allow-credentials", 
@@ -0,0 +1,24 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.backend.service.CoalescenciaService;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // Opcional: testes de fatia (@WebMvcTest) não carregam os serviços
+    @Autowired
+    private ObjectProvider<CoalescenciaService> coalescenciaService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        coalescenciaService.ifAvailable(servico -> registry
+                .addInterceptor(new CoalescenciaInterceptor(servico))
+                .addPathPatterns("/api/compromissos/**"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.backend.dto.EstadoFeed;
+import com.example.backend.dto.FeedCalendarioDTO;
+import com.example.backend.service.CalendarioService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/calendario")
+public class CalendarioController {
+
+    // O aplicativo pode guardar o feed, mas sempre revalida com If-None-Match/If-Modified-Since
+    private static final String CACHE_CONTROL_REVALIDAR = "private, no-cache";
+
+    @Autowired
+    private CalendarioService calendarioService;
+
+    // Público (SecurityConfig): o token da URL é a credencial
+    @GetMapping("/{token}.ics")
+    public void feed(@PathVariable String token, ServletWebRequest request,
+                     HttpServletResponse response) throws IOException {
+        EstadoFeed estado = calendarioService.estado(token);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_REVALIDAR);
+        String etag = "\"" + estado.getId() + "-" + estado.getVersaoDados() + "\"";
+        boolean naoModificado = estado.getDadosAlteradosEm() != null
+                ? request.checkNotModified(etag, estado.getDadosAlteradosEm().toEpochMilli())
+                : request.checkNotModified(etag);
+        if (naoModificado) {
+            return;
+        }
+        response.setContentType("text/calendar; charset=UTF-8");
+        calendarioService.escreverIcs(estado, response.getOutputStream());
+    }
+
+    // Gera (ou troca) o token: a URL anterior deixa de funcionar
+    @PostMapping("/token")
+    @ResponseStatus(HttpStatus.CREATED)
+    public FeedCalendarioDTO gerarToken(java.security.Principal principal) {
+        String token = calendarioService.gerarToken(principal.getName());
+        return new FeedCalendarioDTO(token, "/api/calendario/" + token + ".ics");
+    }
+
+    @DeleteMapping("/token")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revogarToken(java.security.Principal principal) {
+        calendarioService.revogarToken(principal.getName());
+    }
+}
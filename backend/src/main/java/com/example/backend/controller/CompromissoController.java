@@ -3,29 +3,73 @@ package com.example.backend.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.GZIPOutputStream;
 
+import com.example.backend.dto.AgendaDTO;
+import com.example.backend.dto.AlteracaoStatusLoteDTO;
+import com.example.backend.dto.AlteracoesDTO;
+import com.example.backend.dto.BuscaDTO;
+import com.example.backend.dto.CompromissoEstatisticasDTO;
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.dto.CompromissoLoteDTO;
+import com.example.backend.dto.CompromissoPaginaDTO;
 import com.example.backend.dto.CompromissoRequestDTO;
 import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.dto.ExportacaoJobDTO;
+import com.example.backend.dto.KanbanColunaDTO;
+import com.example.backend.dto.KanbanDTO;
+import com.example.backend.dto.LoteOperacoesDTO;
+import com.example.backend.dto.MovimentoKanbanDTO;
+import com.example.backend.dto.ResultadoImportacaoDTO;
+import com.example.backend.dto.ResultadoLoteDTO;
+import com.example.backend.dto.ResultadoOperacoesDTO;
+import com.example.backend.exception.PreCondicaoFalhouException;
+import com.example.backend.exception.RequisicaoInvalidaException;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.service.CoalescenciaService;
 import com.example.backend.service.CompromissoService;
+import com.example.backend.service.ExportacaoJobService;
+import com.example.backend.service.ExportacaoService;
+import com.example.backend.service.IdempotenciaService;
+import com.example.backend.service.ImportacaoService;
+import com.example.backend.service.OperacoesLoteService;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import jakarta.validation.Valid;
 
@@ -33,73 +77,415 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/compromissos")
 public class CompromissoController {
 
+    // O navegador pode guardar a resposta, mas sempre revalida com If-None-Match
+    private static final String CACHE_CONTROL_REVALIDAR = "private, no-cache";
+
+    private static final int TAMANHO_BUFFER_IMPORTACAO = 64 * 1024;
+    private static final int TAMANHO_BUFFER_GZIP = 16 * 1024;
+    private static final int TAMANHO_BUFFER_DOWNLOAD = 64 * 1024;
+
+    // Atributos de requisição do sendfile do Tomcat (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
     @Autowired
     private CompromissoService service;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private ExportacaoJobService exportacaoJobService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private CoalescenciaService coalescenciaService;
+
+    @Autowired
+    private ImportacaoService importacaoService;
+
+    @Autowired
+    private OperacoesLoteService operacoesLoteService;
+
     @GetMapping
-    public List<CompromissoResponseDTO> listar(java.security.Principal principal) {
-        return service.listarTodos(principal.getName());
+    public List<CompromissoResponseDTO> listar(
+            @ModelAttribute CompromissoFiltroDTO filtro,
+            java.security.Principal principal,
+            ServletWebRequest request
+    ) {
+        // Os filtros fazem parte da URL, então o mesmo ETag por versão vale para cada combinação
+        if (naoModificado(request, service.versaoEtag(principal.getName()))) {
+            return null;
+        }
+        return service.listar(principal.getName(), filtro);
+    }
+
+    @GetMapping("/stream")
+    public void stream(
+            @RequestParam(name = "format", defaultValue = "json") String format,
+            java.security.Principal principal,
+            HttpServletResponse response
+    ) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            throw new RequisicaoInvalidaException("Formato não suportado: " + format);
+        }
+
+        response.setContentType(ndjson ? "application/x-ndjson" : "application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        service.escreverJson(principal.getName(), response.getOutputStream(), ndjson);
+    }
+
+    @GetMapping("/page")
+    public CompromissoPaginaDTO listarPagina(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            java.security.Principal principal
+    ) {
+        return service.listarPagina(principal.getName(), cursor, limit);
+    }
+
+    @GetMapping("/changes")
+    public AlteracoesDTO alteracoes(
+            @RequestParam(name = "since", required = false) Long since,
+            java.security.Principal principal
+    ) {
+        return service.alteracoes(principal.getName(), since);
+    }
+
+    @GetMapping("/search")
+    public BuscaDTO buscar(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            java.security.Principal principal
+    ) {
+        return service.buscar(principal.getName(), q, page, limit);
+    }
+
+    @GetMapping("/kanban")
+    public KanbanDTO kanban(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            java.security.Principal principal
+    ) {
+        return service.kanban(principal.getName(), limit);
+    }
+
+    @GetMapping("/kanban/{status}")
+    public KanbanColunaDTO kanbanColuna(
+            @PathVariable CompromissoStatus status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            java.security.Principal principal
+    ) {
+        return service.kanbanColuna(principal.getName(), status, cursor, limit);
+    }
+
+    @GetMapping("/agenda")
+    public AgendaDTO agenda(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "hoje", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hoje,
+            java.security.Principal principal
+    ) {
+        // "hoje" vem do cliente quando possível, pois dataHora é armazenada sem fuso horário
+        LocalDate referencia = hoje != null ? hoje : LocalDate.now();
+        LocalDate inicio = from != null ? from : referencia;
+        LocalDate fim = to != null ? to : inicio.plusDays(16);
+        return service.agenda(principal.getName(), inicio, fim, referencia);
+    }
+
+    @GetMapping("/stats")
+    public CompromissoEstatisticasDTO estatisticas(
+            @RequestParam(name = "agora", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime agora,
+            java.security.Principal principal,
+            ServletWebRequest request
+    ) {
+        // Sem "agora" explícito, usa o minuto atual (mesma precisão de dataHora): a resposta
+        // só muda com os dados ou com a virada do minuto, que então entra no ETag
+        String etag = service.versaoEtag(principal.getName());
+        if (agora == null) {
+            agora = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+            etag += "-" + agora;
+        }
+        if (naoModificado(request, etag)) {
+            return null;
+        }
+        return service.estatisticas(principal.getName(), agora);
+    }
+
+    @GetMapping("/{id}")
+    public CompromissoResponseDTO buscarPorId(@PathVariable Long id, java.security.Principal principal,
+                                              HttpServletResponse response) {
+        return comEtag(service.buscarPorId(id, principal.getName()), response);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CompromissoResponseDTO criar(@RequestBody @Valid CompromissoRequestDTO dto, java.security.Principal principal) {
-        return service.criar(dto, principal.getName());
+    public CompromissoResponseDTO criar(@RequestBody @Valid CompromissoRequestDTO dto,
+                                        @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+                                        java.security.Principal principal, HttpServletResponse response) {
+        if (chaveIdempotencia == null) {
+            return comEtag(service.criar(dto, principal.getName()), response);
+        }
+        // Repetição da mesma chave devolve a resposta original sem criar outro compromisso
+        IdempotenciaService.Resultado resultado = idempotenciaService.executar(
+                principal.getName(), chaveIdempotencia, dto, () -> service.criar(dto, principal.getName()));
+        if (resultado.repetida()) {
+            response.setHeader("Idempotent-Replayed", "true");
+        }
+        return comEtag(resultado.resposta(), response);
+    }
+
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<CompromissoResponseDTO> criarEmLote(@RequestBody @Valid CompromissoLoteDTO lote, java.security.Principal principal) {
+        return service.criarEmLote(lote, principal.getName());
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResultadoImportacaoDTO importar(java.security.Principal principal, HttpServletRequest request) throws IOException {
+        // Lido direto do corpo, em streaming: o arquivo nunca é carregado inteiro na memória
+        try (Reader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), TAMANHO_BUFFER_IMPORTACAO)) {
+            return importacaoService.importar(principal.getName(), reader);
+        }
+    }
+
+    // Várias operações (criar, alterar, excluir, ler) em uma só requisição; resultados por operação
+    @PostMapping("/batch")
+    public ResultadoOperacoesDTO executarLote(@RequestBody @Valid LoteOperacoesDTO lote, java.security.Principal principal) {
+        return operacoesLoteService.executar(principal.getName(), lote);
+    }
+
+    @PostMapping("/bulk/status")
+    public ResultadoLoteDTO alterarStatusEmLote(@RequestBody @Valid AlteracaoStatusLoteDTO dto, java.security.Principal principal) {
+        return service.alterarStatusEmLote(dto, principal.getName());
     }
 
     @PutMapping("/{id}")
-    public CompromissoResponseDTO atualizar(@PathVariable Long id, @RequestBody @Valid CompromissoRequestDTO dto, java.security.Principal principal) {
-        return service.atualizar(id, dto, principal.getName());
+    public CompromissoResponseDTO atualizar(@PathVariable Long id, @RequestBody @Valid CompromissoRequestDTO dto,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            java.security.Principal principal, HttpServletResponse response) {
+        return comEtag(coalescenciaService.atualizar(id, dto, principal.getName(), versaoEsperada(ifMatch)), response);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", "application/json"})
+    public CompromissoResponseDTO atualizarParcial(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   java.security.Principal principal, HttpServletResponse response) {
+        return comEtag(service.atualizarParcial(id, patch, principal.getName(), versaoEsperada(ifMatch)), response);
+    }
+
+    // Arrastar e soltar no Kanban: grava só a coluna e a chave de ordem do card
+    @PutMapping("/{id}/posicao")
+    public CompromissoResponseDTO mover(@PathVariable Long id, @RequestBody @Valid MovimentoKanbanDTO movimento,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                       java.security.Principal principal, HttpServletResponse response) {
+        return comEtag(service.mover(id, movimento, principal.getName(), versaoEsperada(ifMatch)), response);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deletar(@PathVariable Long id, java.security.Principal principal) {
-        try {
-            service.deletar(id, principal.getName());
-        } catch (com.example.backend.exception.RecursoNaoEncontradoException e) {
-            // Idempotent delete: if resource doesn't exist, we consider it deleted.
-        }
+    public void deletar(@PathVariable Long id,
+                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                        java.security.Principal principal) {
+        // Idempotent delete: if resource doesn't exist, we consider it deleted (unless If-Match is sent).
+        service.deletar(id, principal.getName(), versaoEsperada(ifMatch));
     }
 
     @GetMapping("/export")
     public void exportar(
             @RequestParam(name = "format", defaultValue = "csv") String format,
+            @ModelAttribute CompromissoFiltroDTO filtro,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             java.security.Principal principal,
+            ServletWebRequest request,
             HttpServletResponse response
     ) throws IOException {
         if (!"csv".equalsIgnoreCase(format)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato não suportado: " + format);
         }
-
-        var lista = service.listarTodos(principal.getName());
+        // Cada codificação é uma representação diferente, com o seu próprio ETag
+        boolean gzip = aceitaGzip(acceptEncoding);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String etag = service.versaoEtag(principal.getName());
+        if (naoModificado(request, gzip ? etag + "-gzip" : etag)) {
+            return;
+        }
 
         String filename = URLEncoder.encode("compromissos-" + principal.getName() + ".csv", StandardCharsets.UTF_8);
         response.setContentType("text/csv; charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
 
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
-        try (PrintWriter writer = response.getWriter()) {
-            writer.println("id,titulo,dataHora,tipo,status,valor,urgente,descricao");
-            for (var c : lista) {
-                String csvTitulo = com.example.backend.util.CsvUtils.sanitize(c.getTitulo());
-                String csvDescricao = com.example.backend.util.CsvUtils.sanitize(c.getDescricao());
-                String dataHora = c.getDataHora() != null ? dtf.format(c.getDataHora()) : "";
-                String valor = (c.getValor() != null) ? c.getValor().toString() : "";
-                String urgente = c.isUrgente() ? "true" : "false";
-                writer.printf("%d,%s,%s,%s,%s,%s,%s,%s%n",
-                        c.getId(),
-                        csvTitulo,
-                        dataHora,
-                        c.getTipo() != null ? c.getTipo().name() : "",
-                        c.getStatus() != null ? c.getStatus().name() : "",
-                        valor,
-                        urgente,
-                        csvDescricao
-                );
+        // As linhas vão do cursor do banco direto para a resposta, sem montar a lista em memória
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), TAMANHO_BUFFER_GZIP)) {
+                exportacaoService.escreverCsv(principal.getName(), filtro, out);
             }
-            writer.flush();
+        } else {
+            exportacaoService.escreverCsv(principal.getName(), filtro, response.getOutputStream());
+        }
+    }
+
+    // Accept-Encoding com gzip (ou *) sem q=0
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.trim().split(";");
+            String codificacao = partes[0].trim();
+            if (!codificacao.equalsIgnoreCase("gzip") && !codificacao.equals("*")) {
+                continue;
+            }
+            boolean recusado = false;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].replace(" ", "");
+                recusado |= parametro.matches("(?i)q=0(\\.0{0,3})?");
+            }
+            return !recusado;
+        }
+        return false;
+    }
+
+    // Exportação assíncrona: o arquivo é gerado em segundo plano e baixado depois (com Range)
+    @PostMapping("/export/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ExportacaoJobDTO criarExportacao(@ModelAttribute CompromissoFiltroDTO filtro,
+                                            java.security.Principal principal, HttpServletResponse response) {
+        ExportacaoJobDTO job = exportacaoJobService.criar(principal.getName(), filtro);
+        response.setHeader(HttpHeaders.LOCATION, "/api/compromissos/export/jobs/" + job.getId());
+        return job;
+    }
+
+    @GetMapping("/export/jobs/{id}")
+    public ExportacaoJobDTO buscarExportacao(@PathVariable String id, java.security.Principal principal) {
+        return exportacaoJobService.buscar(id, principal.getName());
+    }
+
+    @GetMapping("/export/jobs/{id}/arquivo")
+    public void baixarExportacao(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            java.security.Principal principal,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        ExportacaoJobService.Arquivo arquivo = exportacaoJobService.arquivo(id, principal.getName());
+        try {
+            enviarExportacao(arquivo, range, ifRange, request, response);
+        } finally {
+            exportacaoJobService.liberar(arquivo);
         }
     }
 
+    private static void enviarExportacao(ExportacaoJobService.Arquivo arquivo, String range, String ifRange,
+                                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long tamanho = arquivo.tamanho();
+        String filename = URLEncoder.encode(arquivo.nome(), StandardCharsets.UTF_8);
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, arquivo.etag());
+
+        long inicio = 0;
+        long fim = tamanho - 1;
+        // Range malformado ou com várias faixas é ignorado (resposta inteira), como permite a RFC 9110;
+        // If-Range diferente do ETag também, pois o cliente tem pedaços de outro arquivo
+        List<HttpRange> faixas = faixas(range);
+        if (faixas.size() == 1 && (ifRange == null || ifRange.equals(arquivo.etag()))) {
+            HttpRange faixa = faixas.get(0);
+            try {
+                inicio = faixa.getRangeStart(tamanho);
+                fim = faixa.getRangeEnd(tamanho);
+            } catch (IllegalArgumentException e) {
+                inicio = tamanho;
+            }
+            if (inicio >= tamanho || inicio > fim) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                response.setContentLength(0);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+        response.setContentLengthLong(fim - inicio + 1);
+        enviarArquivo(arquivo.caminho(), inicio, fim - inicio + 1, request, response);
+    }
+
+    private static List<HttpRange> faixas(String range) {
+        if (range == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    // Com o sendfile do Tomcat (conector NIO) o kernel copia o arquivo direto para o socket, sem
+    // passar pelo heap, depois que o controller retorna. Sem sendfile (outros servidores, HTTPS no
+    // NIO, testes) é uma cópia comum em blocos pelo heap, como a de Files.copy, só que da faixa pedida
+    private static void enviarArquivo(Path caminho, long inicio, long quantidade,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            request.setAttribute(SENDFILE_ARQUIVO, caminho.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + quantidade);
+            return;
+        }
+        try (InputStream arquivo = Files.newInputStream(caminho)) {
+            arquivo.skipNBytes(inicio);
+            OutputStream saida = response.getOutputStream();
+            byte[] buffer = new byte[TAMANHO_BUFFER_DOWNLOAD];
+            long restantes = quantidade;
+            while (restantes > 0) {
+                int lidos = arquivo.read(buffer, 0, (int) Math.min(buffer.length, restantes));
+                if (lidos < 0) {
+                    throw new EOFException("Arquivo de exportação menor que o esperado: " + caminho);
+                }
+                saida.write(buffer, 0, lidos);
+                restantes -= lidos;
+            }
+        }
+    }
+
+    // ETag de um compromisso: a versão de concorrência otimista (@Version)
+    private CompromissoResponseDTO comEtag(CompromissoResponseDTO dto, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, "\"" + dto.getVersao() + "\"");
+        return dto;
+    }
+
+    // If-Match com o ETag de um compromisso -> versão esperada; ausente ou "*" -> sem checagem.
+    // A comparação é forte: ETags fracos (W/) ou malformados nunca conferem e geram 412
+    private Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai no 412 abaixo
+            }
+        }
+        throw new PreCondicaoFalhouException("If-Match não corresponde a nenhuma versão do compromisso: " + ifMatch);
+    }
+
+    // ETag forte a partir da versão dos dados do usuário: com If-None-Match igual,
+    // responde 304 sem consultar nem serializar os compromissos
+    private boolean naoModificado(ServletWebRequest request, String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_REVALIDAR);
+        return request.checkNotModified("\"" + etag + "\"");
+    }
 }
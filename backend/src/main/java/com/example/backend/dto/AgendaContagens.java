@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+/**
+ * Projeção da consulta agregada que calcula os badges da agenda em uma única ida ao banco.
+ */
+public interface AgendaContagens {
+    Long getHoje();
+    Long getProximos7();
+    Long getProximos15();
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class AgendaDTO {
+    private LocalDate from; // Início da janela (inclusivo)
+    private LocalDate to;   // Fim da janela (exclusivo)
+
+    // Contadores dos badges, relativos ao dia de referência
+    private long hoje;
+    private long proximos7;
+    private long proximos15;
+
+    private List<AgendaDiaDTO> dias;
+}
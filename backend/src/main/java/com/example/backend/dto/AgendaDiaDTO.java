@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgendaDiaDTO {
+    private LocalDate data;
+    private List<CompromissoResponseDTO> itens;
+}
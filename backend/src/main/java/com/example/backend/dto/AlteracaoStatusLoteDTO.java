@@ -0,0 +1,23 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import com.example.backend.model.CompromissoStatus;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Corpo de POST /api/compromissos/bulk/status: novo status para os compromissos
+ * indicados por {@code ids}, por {@code filtro} ou pela combinação dos dois.
+ */
+@Data
+public class AlteracaoStatusLoteDTO {
+
+    @NotNull(message = "O status é obrigatório")
+    private CompromissoStatus status;
+
+    private List<Long> ids;
+
+    private CompromissoFiltroDTO filtro;
+}
@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracoesDTO {
+    private long versao; // Enviar como ?since= na próxima sincronização
+    private boolean reset; // true: "alterados" é a lista completa e substitui o estado local
+    private List<CompromissoResponseDTO> alterados;
+    private List<Long> removidos;
+}
@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuscaDTO {
+    private String q;
+    private int page;
+    private boolean temMais; // Existe ao menos mais uma página de resultados
+    private List<CompromissoResponseDTO> itens;
+}
@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+/**
+ * Projeção de uma coluna do Kanban (usuário e status) a rebalancear.
+ */
+public interface ColunaKanban {
+    String getUsername();
+    String getStatus();
+}
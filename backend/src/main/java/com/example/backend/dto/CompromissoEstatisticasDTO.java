@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+
+import lombok.Data;
+
+@Data
+public class CompromissoEstatisticasDTO {
+    private long total;
+    private long proximos; // Compromissos com dataHora no futuro
+    private Map<CompromissoTipo, Long> porTipo;
+    private Map<CompromissoStatus, Long> porStatus;
+    private BigDecimal valorTotal;
+    private Map<CompromissoTipo, BigDecimal> valorPorTipo;
+}
@@ -0,0 +1,41 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+
+import lombok.Data;
+
+/**
+ * Filtros opcionais de GET /api/compromissos (query string). Listas aceitam o parâmetro
+ * repetido, ex.: {@code ?tipo=PERICIA&tipo=TRABALHO}.
+ */
+@Data
+public class CompromissoFiltroDTO {
+
+    private List<CompromissoTipo> tipo;
+
+    private List<CompromissoStatus> status;
+
+    private Boolean urgente;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // Inclusivo
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // Exclusivo
+
+    private BigDecimal valorMin;
+
+    private BigDecimal valorMax;
+
+    public boolean isVazio() {
+        return (tipo == null || tipo.isEmpty()) && (status == null || status.isEmpty()) && urgente == null
+                && from == null && to == null && valorMin == null && valorMax == null;
+    }
+}
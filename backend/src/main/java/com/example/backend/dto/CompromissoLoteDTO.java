@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class CompromissoLoteDTO {
+
+    // Cada item é validado como no POST individual; um item inválido rejeita o lote inteiro
+    @NotEmpty(message = "O lote deve ter ao menos um compromisso")
+    private List<@Valid CompromissoRequestDTO> itens;
+}
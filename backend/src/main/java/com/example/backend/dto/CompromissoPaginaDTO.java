@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompromissoPaginaDTO {
+    private List<CompromissoResponseDTO> itens;
+    private String next; // Cursor opaco da próxima página (null na última)
+}
@@ -7,8 +7,10 @@ import com.example.backend.model.CompromissoStatus;
 import com.example.backend.model.CompromissoTipo;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class CompromissoResponseDTO {
     private Long id;
     private String titulo;
@@ -18,5 +20,26 @@ public class CompromissoResponseDTO {
     private CompromissoTipo tipo;
     private CompromissoStatus status;
     private boolean urgente;
+    private String ordem; // Posição no Kanban dentro da coluna do status (null: ainda sem posição manual)
+    private Long versao; // Também enviado no header ETag; usado em If-Match nas alterações
     private String username; // Only return username, not full user entity
+
+    /**
+     * Construtor usado nas projeções JPQL ({@code SELECT new ...}): as colunas vão direto
+     * para o DTO, sem entidade gerenciada nem join com o usuário. O username é
+     * preenchido pelo serviço a partir do principal.
+     */
+    public CompromissoResponseDTO(Long id, String titulo, String descricao, LocalDateTime dataHora,
+                                  Double valor, String tipo, String status, Boolean urgente, Long versao, String ordem) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.dataHora = dataHora;
+        this.valor = valor != null ? BigDecimal.valueOf(valor) : null;
+        this.tipo = CompromissoTipo.fromNome(tipo);
+        this.status = CompromissoStatus.fromNome(status);
+        this.urgente = urgente != null && urgente;
+        this.versao = versao;
+        this.ordem = ordem;
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.backend.dto;
+
+/**
+ * Projeção da contagem de compromissos por status.
+ */
+public interface ContagemStatus {
+    String getStatus();
+    Long getTotal();
+}
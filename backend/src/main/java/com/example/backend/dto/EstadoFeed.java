@@ -0,0 +1,13 @@
+package com.example.backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Projeção do usuário dono de um feed iCalendar: o suficiente para responder 304 sem ler os compromissos.
+ */
+public interface EstadoFeed {
+    Long getId();
+    String getUsername();
+    Long getVersaoDados();
+    Instant getDadosAlteradosEm();
+}
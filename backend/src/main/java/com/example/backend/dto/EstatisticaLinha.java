@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+/**
+ * Projeção de uma linha da consulta agregada de estatísticas (agrupada por tipo e status).
+ */
+public interface EstatisticaLinha {
+    String getTipo();
+    String getStatus();
+    Long getTotal();
+    Long getFuturos();
+    Double getValor();
+}
@@ -0,0 +1,25 @@
+package com.example.backend.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Situação de uma exportação assíncrona (GET /api/compromissos/export/jobs/{id}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacaoJobDTO {
+    private String id;
+    private String status; // PENDENTE, EM_ANDAMENTO, CONCLUIDO ou FALHOU
+    private long bytesEscritos; // Progresso: bytes já gravados no arquivo
+    private Long tamanho; // Tamanho final do arquivo (só quando CONCLUIDO)
+    private Instant criadoEm;
+    private Instant concluidoEm;
+    private Instant expiraEm; // Após esse instante o arquivo é removido
+    private String erro;
+    private String download; // URL do arquivo (só quando CONCLUIDO)
+}
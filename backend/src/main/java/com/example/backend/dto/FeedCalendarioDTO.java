@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token do feed iCalendar e o caminho a assinar no aplicativo de calendário.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedCalendarioDTO {
+    private String token;
+    private String url;
+}
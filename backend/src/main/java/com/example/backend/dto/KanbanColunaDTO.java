@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import com.example.backend.model.CompromissoStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KanbanColunaDTO {
+    private CompromissoStatus status;
+    private Long total; // Total da coluna, não apenas dos itens retornados (nulo na continuação)
+    private List<CompromissoResponseDTO> itens;
+    private String next; // Cursor para continuar a coluna (null quando não há mais itens)
+}
@@ -0,0 +1,21 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+/**
+ * Corpo de POST /api/compromissos/batch: operações executadas na ordem recebida. Com
+ * {@code atomico} (padrão) todas rodam em uma única transação e qualquer falha desfaz o lote;
+ * sem ele cada operação tem a sua transação e as falhas são independentes.
+ */
+@Data
+public class LoteOperacoesDTO {
+
+    @NotEmpty(message = "O lote deve ter ao menos uma operação")
+    private List<@Valid OperacaoDTO> operacoes;
+
+    private boolean atomico = true;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.CompromissoStatus;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Corpo de PUT /api/compromissos/{id}/posicao: coluna de destino no Kanban e o card
+ * logo acima da posição em que o compromisso foi solto ({@code null}: topo da coluna).
+ */
+@Data
+public class MovimentoKanbanDTO {
+
+    @NotNull(message = "O status é obrigatório")
+    private CompromissoStatus status;
+
+    private Long anteriorId;
+}
@@ -0,0 +1,24 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * Uma operação de POST /api/compromissos/batch, no formato do endpoint REST equivalente:
+ * {@code metodo} POST (criar), PUT, PATCH, DELETE ou GET sobre o compromisso {@code id},
+ * com o corpo que a requisição individual teria. {@code versao} faz o papel do If-Match.
+ */
+@Data
+public class OperacaoDTO {
+
+    @NotBlank(message = "O método é obrigatório")
+    private String metodo;
+
+    private Long id;
+
+    private Long versao;
+
+    private JsonNode corpo;
+}
@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+    private long importados;
+    private long rejeitados;
+    // Só as primeiras linhas rejeitadas são detalhadas; "rejeitados" tem o total
+    private List<ErroImportacaoDTO> erros = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de uma operação do lote: o status HTTP, o ETag e o corpo (compromisso ou
+ * ErrorResponse) que a requisição individual teria devolvido.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoOperacaoDTO {
+    private int status;
+    private String etag;
+    private Object corpo;
+}
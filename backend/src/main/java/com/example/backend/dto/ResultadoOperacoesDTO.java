@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoOperacoesDTO {
+    private boolean aplicado; // false se um lote atômico foi desfeito
+    private List<ResultadoOperacaoDTO> resultados; // Na mesma ordem das operações
+}
@@ -0,0 +1,10 @@
+package com.example.backend.dto;
+
+/**
+ * Projeção das versões de sincronização incremental do usuário.
+ */
+public interface VersaoSync {
+    Long getId();
+    Long getVersaoDados();
+    Long getVersaoMinimaSync();
+}
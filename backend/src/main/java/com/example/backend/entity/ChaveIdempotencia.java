@@ -0,0 +1,45 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Resposta já enviada para um {@code Idempotency-Key} de POST /api/compromissos.
+ * A unicidade de (username, chave) garante no banco que a mesma chave não cria
+ * dois compromissos, mesmo entre instâncias diferentes da aplicação.
+ */
+@Entity
+@Table(name = "chave_idempotencia",
+    uniqueConstraints = @UniqueConstraint(name = "uk_chave_idempotencia_username_chave", columnNames = {"username", "chave"}),
+    indexes = @Index(name = "idx_chave_idempotencia_criada_em", columnList = "criada_em"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveIdempotencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String chave;
+
+    // SHA-256 (hex) do corpo da requisição original: a mesma chave com outro corpo é rejeitada
+    @Column(nullable = false, length = 64)
+    private String hashRequisicao;
+
+    // CompromissoResponseDTO serializado. Sem limite de tamanho: caracteres de controle viram
+    // escapes Unicode de seis caracteres, então 500 caracteres de descrição ocupam até 3000
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String resposta;
+
+    @Column(nullable = false)
+    private Instant criadaEm;
+}
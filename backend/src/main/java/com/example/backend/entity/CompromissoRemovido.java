@@ -0,0 +1,40 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Tombstone de um compromisso excluído, para que a sincronização incremental
+ * (GET /api/compromissos/changes) consiga informar exclusões aos clientes.
+ */
+@Entity
+@Table(name = "compromisso_removido", indexes = {
+    @Index(name = "idx_compromisso_removido_username_versao", columnList = "username, versao"),
+    @Index(name = "idx_compromisso_removido_removido_em", columnList = "removido_em")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompromissoRemovido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long compromissoId;
+
+    @Column(nullable = false)
+    private String username;
+
+    // Valor de Usuario.versaoDados gerado pela exclusão
+    @Column(nullable = false)
+    private Long versao;
+
+    @Column(nullable = false)
+    private Instant removidoEm;
+}
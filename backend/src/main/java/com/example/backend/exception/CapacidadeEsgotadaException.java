@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CapacidadeEsgotadaException extends RuntimeException {
+    public CapacidadeEsgotadaException(String message) {
+        super(message);
+    }
+}
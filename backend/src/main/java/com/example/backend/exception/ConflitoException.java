@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflitoException extends RuntimeException {
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreCondicaoFalhouException extends RuntimeException {
+    public PreCondicaoFalhouException(String message) {
+        super(message);
+    }
+}
@@ -2,24 +2,50 @@ package com.example.backend.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Entity
+@Table(indexes = {
+    // Paginação por cursor e janelas da agenda: WHERE user_id = ? ORDER BY data_hora, id
+    @Index(name = "idx_compromisso_usuario_data_hora_id", columnList = "user_id, data_hora, id"),
+    // Estatísticas: cobre a agregação por tipo/status (index-only scan no PostgreSQL)
+    @Index(name = "idx_compromisso_usuario_tipo_status", columnList = "user_id, tipo, status, data_hora, valor"),
+    // Kanban: WHERE user_id = ? AND status = ? ORDER BY ordem LIMIT n, e a chave vizinha ao mover um card
+    @Index(name = "idx_compromisso_usuario_status_ordem", columnList = "user_id, status, ordem"),
+    // Sincronização incremental: WHERE user_id = ? AND versao_alteracao > ?
+    @Index(name = "idx_compromisso_usuario_versao_alteracao", columnList = "user_id, versao_alteracao")
+})
 @Data
 public class Compromisso {
 
+    // Ids reservados por nextval a cada chamada do otimizador pooled
+    public static final int ALOCACAO_IDS = 50;
+
+    // Tamanho da coluna ordem; chaves maiores forçam o rebalanceamento da coluna do Kanban
+    public static final int TAMANHO_MAXIMO_ORDEM = 128;
+
+    // Sequência com alocação em blocos (pooled): o id é conhecido antes do INSERT,
+    // o que permite ao Hibernate agrupar os INSERTs em lotes JDBC (hibernate.jdbc.batch_size)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "compromisso_seq")
+    @SequenceGenerator(name = "compromisso_seq", sequenceName = "compromisso_seq", allocationSize = ALOCACAO_IDS)
     private Long id;
 
     @ManyToOne
@@ -40,10 +66,34 @@ public class Compromisso {
     // Novos Campos para Pro Max Features
     private String status = "PENDENTE"; // PENDENTE, EM_ANDAMENTO, CONCLUIDO
     private Double valor = 0.0;
+
+    // Mesmo limite do @Size de CompromissoRequestDTO
+    @Column(length = 500)
     private String descricao;
 
     private Boolean urgente = false;
 
+    // Posição manual no Kanban: chave fracionária (RankUtils) comparada como texto entre os
+    // compromissos do mesmo status, então mover um card grava só a sua chave. Fica nula nos
+    // compromissos anteriores à ordenação manual até o rebalanceamento diário atribuir uma
+    @Column(length = TAMANHO_MAXIMO_ORDEM)
+    private String ordem;
+
+    // Valor de Usuario.versaoDados na última alteração deste compromisso
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versaoAlteracao = 0L;
+
+    // Controle de concorrência otimista, exposto como ETag do compromisso. Os UPDATE/DELETE
+    // em massa incrementam a coluna e, com If-Match, conferem a versão no próprio WHERE.
+    // Fica nulo até o INSERT para o Spring Data tratar a entidade como nova (persist, não merge)
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     public Long getId() {
         return id;
     }
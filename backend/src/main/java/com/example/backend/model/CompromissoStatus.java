@@ -1,8 +1,27 @@
 package com.example.backend.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum CompromissoStatus {
     PENDENTE,
     EM_ANDAMENTO,
     CONCLUIDO,
-    CANCELADO
+    CANCELADO;
+
+    private static final Map<String, CompromissoStatus> POR_NOME = new HashMap<>();
+
+    static {
+        for (CompromissoStatus status : values()) {
+            POR_NOME.put(status.name(), status);
+        }
+    }
+
+    /**
+     * Converte o valor persistido sem lançar exceção; valores desconhecidos viram PENDENTE.
+     */
+    public static CompromissoStatus fromNome(String nome) {
+        CompromissoStatus status = nome != null ? POR_NOME.get(nome) : null;
+        return status != null ? status : PENDENTE;
+    }
 }
@@ -1,10 +1,29 @@
 package com.example.backend.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum CompromissoTipo {
     PERICIA,
     TRABALHO,
     FAMILIA,
     FINANCEIRO,
     ESTUDOS,
-    OUTROS
+    OUTROS;
+
+    private static final Map<String, CompromissoTipo> POR_NOME = new HashMap<>();
+
+    static {
+        for (CompromissoTipo tipo : values()) {
+            POR_NOME.put(tipo.name(), tipo);
+        }
+    }
+
+    /**
+     * Converte o valor persistido sem lançar exceção; valores desconhecidos viram OUTROS.
+     */
+    public static CompromissoTipo fromNome(String nome) {
+        CompromissoTipo tipo = nome != null ? POR_NOME.get(nome) : null;
+        return tipo != null ? tipo : OUTROS;
+    }
 }
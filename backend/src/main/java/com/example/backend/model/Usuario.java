@@ -1,5 +1,11 @@
 package com.example.backend.model;
 
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -28,4 +34,28 @@ public class Usuario {
     @Size(min = 6, message = "A senha deve ter no mínimo 6 caracteres")
     @Column(nullable = false)
     private String password;
+
+    // Sincronização incremental (GET /api/compromissos/changes): incrementada a cada
+    // criação, alteração ou exclusão de compromisso do usuário
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versaoDados = 0L;
+
+    // Tombstones com versão até este valor já foram descartados: clientes mais
+    // antigos que isso precisam recarregar tudo
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versaoMinimaSync = 0L;
+
+    // Momento da última alteração de versaoDados: Last-Modified do feed iCalendar
+    @JsonIgnore
+    private Instant dadosAlteradosEm;
+
+    // Token secreto da URL do feed iCalendar (GET /api/calendario/{token}.ics): os aplicativos
+    // de calendário não enviam o JWT. Nulo quando o feed está desativado ou foi revogado
+    @JsonIgnore
+    @Column(unique = true, length = 64)
+    private String feedToken;
 }
@@ -0,0 +1,20 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, Long> {
+
+    Optional<ChaveIdempotencia> findByUsernameAndChave(String username, String chave);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ChaveIdempotencia k WHERE k.criadaEm < :limite")
+    int deleteCriadasAntesDe(Instant limite);
+}
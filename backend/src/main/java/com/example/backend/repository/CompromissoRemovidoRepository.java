@@ -0,0 +1,22 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.CompromissoRemovido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CompromissoRemovidoRepository extends JpaRepository<CompromissoRemovido, Long> {
+
+    @Query("SELECT r.compromissoId FROM CompromissoRemovido r " +
+           "WHERE r.username = :username AND r.versao > :desde AND r.versao <= :ate ORDER BY r.versao")
+    List<Long> buscarRemovidos(String username, long desde, long ate);
+
+    @Modifying
+    @Query("DELETE FROM CompromissoRemovido r WHERE r.removidoEm < :limite")
+    int deleteRemovidosAntesDe(Instant limite);
+}
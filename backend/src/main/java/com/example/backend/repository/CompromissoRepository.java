@@ -1,13 +1,178 @@
 package com.example.backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.example.backend.dto.AgendaContagens;
+import com.example.backend.dto.ContagemStatus;
+import com.example.backend.dto.ColunaKanban;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.dto.EstatisticaLinha;
 import com.example.backend.model.Compromisso;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface CompromissoRepository extends JpaRepository<Compromisso, Long> {
+public interface CompromissoRepository extends JpaRepository<Compromisso, Long>, CompromissoRepositoryCustom {
+
+    /**
+     * Projeção usada pelas consultas de leitura: seleciona as colunas direto no DTO,
+     * sem hidratar entidades nem o {@code Usuario} associado.
+     */
+    String PROJECAO_DTO = "SELECT new com.example.backend.dto.CompromissoResponseDTO(" +
+            "c.id, c.titulo, c.descricao, c.dataHora, c.valor, c.tipo, c.status, c.urgente, c.versao, c.ordem) " +
+            "FROM Compromisso c ";
+
+    /**
+     * Ordem das colunas do Kanban: chave manual e, para empates e linhas ainda sem chave, (dataHora, id).
+     */
+    String ORDEM_KANBAN = "ORDER BY c.ordem NULLS LAST, c.dataHora, c.id";
+
+    /**
+     * Linhas trazidas do banco por ida ao servidor nas consultas em stream.
+     * No PostgreSQL só tem efeito dentro de uma transação (autocommit desligado).
+     */
+    String FETCH_SIZE_STREAM = "500";
+
     List<Compromisso> findByUsuarioUsername(String username);
+
+    /**
+     * Exclusão com a checagem de propriedade no próprio comando: 0 linhas significa
+     * que o compromisso não existe ou pertence a outro usuário.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Compromisso c WHERE c.id = :id AND c.usuario.id = :usuarioId")
+    int deletarDoUsuario(Long id, Long usuarioId);
+
+    /**
+     * Como {@link #deletarDoUsuario}, mas só exclui se a versão ainda for {@code versao}
+     * (If-Match): o conflito é detectado pelo próprio DELETE.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Compromisso c WHERE c.id = :id AND c.usuario.id = :usuarioId AND c.versao = :versao")
+    int deletarDoUsuarioNaVersao(Long id, Long usuarioId, Long versao);
+
+    boolean existsByIdAndUsuarioId(Long id, Long usuarioId);
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username ORDER BY c.dataHora, c.id")
+    List<CompromissoResponseDTO> listarProjecao(String username);
+
+    @Query(PROJECAO_DTO + "WHERE c.id = :id")
+    Optional<CompromissoResponseDTO> buscarProjecao(Long id);
+
+    @Query(PROJECAO_DTO + "WHERE c.id = :id AND c.usuario.username = :username")
+    Optional<CompromissoResponseDTO> buscarProjecaoDoUsuario(Long id, String username);
+
+    /**
+     * Mesma consulta de {@link #listarProjecao}, mas lida incrementalmente por um cursor JDBC.
+     * Deve ser consumida dentro de uma transação e fechada ao final (try-with-resources).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = FETCH_SIZE_STREAM))
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username ORDER BY c.dataHora, c.id")
+    Stream<CompromissoResponseDTO> streamProjecao(String username);
+
+    // Sincronização incremental: alterados em (desde, ate], apoiada em idx_compromisso_usuario_versao_alteracao
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username " +
+           "AND c.versaoAlteracao > :desde AND c.versaoAlteracao <= :ate ORDER BY c.versaoAlteracao")
+    List<CompromissoResponseDTO> buscarAlteracoes(String username, long desde, long ate);
+
+    // Paginação por cursor (keyset) ordenada por (dataHora, id), apoiada em idx_compromisso_usuario_data_hora_id
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username ORDER BY c.dataHora, c.id")
+    List<CompromissoResponseDTO> buscarPrimeiraPagina(String username, Pageable pageable);
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username " +
+           "AND (c.dataHora > :dataHora OR (c.dataHora = :dataHora AND c.id > :id)) " +
+           "ORDER BY c.dataHora, c.id")
+    List<CompromissoResponseDTO> buscarPaginaApos(String username, LocalDateTime dataHora, Long id, Pageable pageable);
+
+    // Agenda: janela [inicio, fim) sobre o mesmo índice (user_id, data_hora, id)
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username " +
+           "AND c.dataHora >= :inicio AND c.dataHora < :fim ORDER BY c.dataHora, c.id")
+    List<CompromissoResponseDTO> buscarJanela(String username, LocalDateTime inicio, LocalDateTime fim);
+
+    @Query("SELECT SUM(CASE WHEN c.dataHora < :amanha THEN 1 ELSE 0 END) AS hoje, " +
+           "SUM(CASE WHEN c.dataHora < :limite7 THEN 1 ELSE 0 END) AS proximos7, " +
+           "COUNT(c) AS proximos15 " +
+           "FROM Compromisso c WHERE c.usuario.username = :username " +
+           "AND c.dataHora >= :hoje AND c.dataHora < :limite15")
+    AgendaContagens contarAgenda(String username, LocalDateTime hoje, LocalDateTime amanha,
+                                 LocalDateTime limite7, LocalDateTime limite15);
+
+    // Estatísticas do dashboard em uma única consulta, coberta por idx_compromisso_usuario_tipo_status
+
+    @Query("SELECT c.tipo AS tipo, c.status AS status, COUNT(c) AS total, " +
+           "SUM(CASE WHEN c.dataHora > :agora THEN 1 ELSE 0 END) AS futuros, " +
+           "SUM(c.valor) AS valor " +
+           "FROM Compromisso c WHERE c.usuario.username = :username GROUP BY c.tipo, c.status")
+    List<EstatisticaLinha> estatisticas(String username, LocalDateTime agora);
+
+    // Kanban: uma consulta LIMIT por coluna na ordem manual, apoiada em idx_compromisso_usuario_status_ordem.
+    // Compromissos ainda sem chave vêm no fim da coluna, por data, até o rebalanceamento
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username AND c.status = :status " + ORDEM_KANBAN)
+    List<CompromissoResponseDTO> buscarPrimeiraPaginaPorStatus(String username, String status, Pageable pageable);
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username AND c.status = :status " +
+           "AND (c.ordem IS NULL OR c.ordem > :ordem OR (c.ordem = :ordem " +
+           "AND (c.dataHora > :dataHora OR (c.dataHora = :dataHora AND c.id > :id)))) " + ORDEM_KANBAN)
+    List<CompromissoResponseDTO> buscarPaginaPorStatusApos(String username, String status, String ordem,
+                                                           LocalDateTime dataHora, Long id, Pageable pageable);
+
+    @Query(PROJECAO_DTO + "WHERE c.usuario.username = :username AND c.status = :status AND c.ordem IS NULL " +
+           "AND (c.dataHora > :dataHora OR (c.dataHora = :dataHora AND c.id > :id)) " + ORDEM_KANBAN)
+    List<CompromissoResponseDTO> buscarPaginaSemOrdemPorStatusApos(String username, String status,
+                                                                   LocalDateTime dataHora, Long id, Pageable pageable);
+
+    // Chaves vizinhas para mover um card: cada consulta lê uma única entrada do índice (user_id, status, ordem)
+
+    @Query("SELECT MAX(c.ordem) FROM Compromisso c WHERE c.usuario.id = :usuarioId AND c.status = :status")
+    Optional<String> buscarUltimaOrdem(Long usuarioId, String status);
+
+    @Query("SELECT MIN(c.ordem) FROM Compromisso c WHERE c.usuario.id = :usuarioId AND c.status = :status " +
+           "AND c.id <> :ignorarId")
+    Optional<String> buscarPrimeiraOrdem(Long usuarioId, String status, Long ignorarId);
+
+    @Query("SELECT MIN(c.ordem) FROM Compromisso c WHERE c.usuario.id = :usuarioId AND c.status = :status " +
+           "AND c.ordem > :ordem AND c.id <> :ignorarId")
+    Optional<String> buscarOrdemSeguinte(Long usuarioId, String status, String ordem, Long ignorarId);
+
+    /**
+     * Chave de ordem de um compromisso do usuário na coluna {@code status}. Vazio se ele não
+     * estiver na coluna; {@code ""} se ainda não tiver chave (chaves válidas nunca são vazias).
+     */
+    @Query("SELECT COALESCE(c.ordem, '') FROM Compromisso c " +
+           "WHERE c.id = :id AND c.usuario.id = :usuarioId AND c.status = :status")
+    Optional<String> buscarOrdemNaColuna(Long id, Long usuarioId, String status);
+
+    // Rebalanceamento: ids da coluna na ordem exibida e uma nova chave por linha
+
+    @Query("SELECT c.id FROM Compromisso c WHERE c.usuario.id = :usuarioId AND c.status = :status " +
+           "AND (:ignorarId IS NULL OR c.id <> :ignorarId) " + ORDEM_KANBAN)
+    List<Long> buscarIdsDaColuna(Long usuarioId, String status, Long ignorarId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Compromisso c SET c.ordem = :ordem, c.versaoAlteracao = :versaoAlteracao, " +
+           "c.versao = c.versao + 1 WHERE c.id = :id")
+    int atualizarOrdem(Long id, String ordem, long versaoAlteracao);
+
+    // Colunas com compromissos sem chave ou com chaves longas demais
+    @Query("SELECT DISTINCT c.usuario.username AS username, c.status AS status FROM Compromisso c " +
+           "WHERE c.ordem IS NULL OR LENGTH(c.ordem) > :tamanho")
+    List<ColunaKanban> buscarColunasParaRebalancear(int tamanho);
+
+    @Query("SELECT c.status AS status, COUNT(c) AS total FROM Compromisso c " +
+           "WHERE c.usuario.username = :username GROUP BY c.status")
+    List<ContagemStatus> contarPorStatus(String username);
 }
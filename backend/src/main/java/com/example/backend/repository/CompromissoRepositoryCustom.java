@@ -0,0 +1,65 @@
+package com.example.backend.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.model.Compromisso;
+
+/**
+ * Consultas de {@link CompromissoRepository} que dependem do banco em uso e por isso
+ * são implementadas manualmente em {@link CompromissoRepositoryCustomImpl}.
+ */
+public interface CompromissoRepositoryCustom {
+
+    /**
+     * Busca textual em título e descrição, restrita ao usuário e ordenada por relevância.
+     * Retorna no máximo {@code limite} itens a partir de {@code offset}.
+     */
+    List<CompromissoResponseDTO> buscarTexto(String username, String termo, int offset, int limite);
+
+    /**
+     * Compromissos que satisfazem {@code spec}, ordenados por (dataHora, id), projetados
+     * direto no DTO (mesmas colunas de {@link CompromissoRepository#PROJECAO_DTO}).
+     */
+    List<CompromissoResponseDTO> filtrar(Specification<Compromisso> spec);
+
+    /**
+     * Mesma consulta de {@link #filtrar}, lida incrementalmente por um cursor JDBC com fetch size
+     * {@link CompromissoRepository#FETCH_SIZE_STREAM}. Deve ser consumida dentro de uma transação
+     * e fechada ao final (try-with-resources).
+     */
+    Stream<CompromissoResponseDTO> streamFiltrado(Specification<Compromisso> spec);
+
+    /**
+     * Um único UPDATE do status (e das versões de sincronização e de concorrência) das linhas que satisfazem
+     * {@code spec}, sem carregar entidades. {@code spec} não pode depender de joins nem
+     * da {@code CriteriaQuery}, que não existe em um UPDATE. A chave de ordem das linhas que
+     * mudam de coluna é anulada (a chave da coluna antiga repetiria chaves da nova): elas vão
+     * para o fim da coluna até o rebalanceamento atribuir chaves.
+     *
+     * @return Quantidade de linhas alteradas
+     */
+    int atualizarStatus(Specification<Compromisso> spec, String status, long versaoAlteracao);
+
+    /**
+     * {@code UPDATE ... SET <campos>, versao = versao + 1 WHERE id = ? AND user_id = ? [AND versao = ?]}:
+     * as checagens de propriedade e de versão (If-Match) fazem parte do comando, sem carregar
+     * a entidade. As chaves de {@code campos} são nomes de atributos de {@link Compromisso}.
+     *
+     * @param versaoEsperada Versão que o cliente conhece, ou null para não conferir
+     * @return 1 se atualizou; 0 se o compromisso não existe, pertence a outro usuário ou
+     *         está em outra versão
+     */
+    int atualizarCampos(Long id, Long usuarioId, Long versaoEsperada, Map<String, Object> campos);
+
+    /**
+     * Como {@link #atualizarCampos(Long, Long, Long, Map)}, mas só atualiza a linha cujo status
+     * atual é {@code statusAtual} ({@code AND status = ?}); 0 também quando o status é outro.
+     */
+    int atualizarCampos(Long id, Long usuarioId, Long versaoEsperada, Map<String, Object> campos,
+                        String statusAtual);
+}
@@ -0,0 +1,171 @@
+package com.example.backend.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.backend.config.DatabasePlatform;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.model.Compromisso;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class CompromissoRepositoryCustomImpl implements CompromissoRepositoryCustom {
+
+    private static final String COLUNAS_DTO =
+            "c.id, c.titulo, c.descricao, c.data_hora, c.valor, c.tipo, c.status, c.urgente, c.versao, c.ordem ";
+
+    // Mesmo formato da projeção JPQL de CompromissoRepository
+    static final RowMapper<CompromissoResponseDTO> DTO_MAPPER = CompromissoRepositoryCustomImpl::mapearDTO;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final DatabasePlatform databasePlatform;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CompromissoRepositoryCustomImpl(NamedParameterJdbcTemplate jdbc, DatabasePlatform databasePlatform) {
+        this.jdbc = jdbc;
+        this.databasePlatform = databasePlatform;
+    }
+
+    @Override
+    public List<CompromissoResponseDTO> buscarTexto(String username, String termo, int offset, int limite) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("limite", limite)
+                .addValue("offset", offset);
+
+        if (databasePlatform.isPostgres()) {
+            // Coluna "busca" e índice GIN criados por PostgresSchemaInitializer
+            params.addValue("termo", termo);
+            return jdbc.query("SELECT " + COLUNAS_DTO +
+                    "FROM compromisso c JOIN users u ON u.id = c.user_id, " +
+                    "websearch_to_tsquery('portuguese', :termo) q " +
+                    "WHERE u.username = :username AND c.busca @@ q " +
+                    "ORDER BY ts_rank(c.busca, q) DESC, c.data_hora, c.id " +
+                    "LIMIT :limite OFFSET :offset", params, DTO_MAPPER);
+        }
+
+        // Fallback portável (H2): todas as palavras devem aparecer no título ou na descrição;
+        // itens cujo título contém o termo inteiro vêm primeiro
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUNAS_DTO)
+                .append("FROM compromisso c JOIN users u ON u.id = c.user_id WHERE u.username = :username ");
+        String[] palavras = termo.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        for (int i = 0; i < palavras.length; i++) {
+            sql.append("AND (LOWER(c.titulo) LIKE :p").append(i).append(" ESCAPE '\\' ")
+               .append("OR LOWER(c.descricao) LIKE :p").append(i).append(" ESCAPE '\\') ");
+            params.addValue("p" + i, padraoLike(palavras[i]));
+        }
+        params.addValue("frase", padraoLike(termo.trim().toLowerCase(Locale.ROOT)));
+        sql.append("ORDER BY CASE WHEN LOWER(c.titulo) LIKE :frase ESCAPE '\\' THEN 0 ELSE 1 END, ")
+           .append("c.data_hora, c.id LIMIT :limite OFFSET :offset");
+        return jdbc.query(sql.toString(), params, DTO_MAPPER);
+    }
+
+    @Override
+    public List<CompromissoResponseDTO> filtrar(Specification<Compromisso> spec) {
+        return entityManager.createQuery(consultaFiltrada(spec)).getResultList();
+    }
+
+    @Override
+    public Stream<CompromissoResponseDTO> streamFiltrado(Specification<Compromisso> spec) {
+        return entityManager.createQuery(consultaFiltrada(spec))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(CompromissoRepository.FETCH_SIZE_STREAM))
+                .getResultStream();
+    }
+
+    private CriteriaQuery<CompromissoResponseDTO> consultaFiltrada(Specification<Compromisso> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CompromissoResponseDTO> query = cb.createQuery(CompromissoResponseDTO.class);
+        Root<Compromisso> c = query.from(Compromisso.class);
+        return query.select(cb.construct(CompromissoResponseDTO.class,
+                        c.get("id"), c.get("titulo"), c.get("descricao"), c.get("dataHora"),
+                        c.get("valor"), c.get("tipo"), c.get("status"), c.get("urgente"), c.get("versao"), c.get("ordem")))
+                .where(spec.toPredicate(c, query, cb))
+                .orderBy(cb.asc(c.get("dataHora")), cb.asc(c.get("id")));
+    }
+
+    @Override
+    public int atualizarStatus(Specification<Compromisso> spec, String status, long versaoAlteracao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Compromisso> update = cb.createCriteriaUpdate(Compromisso.class);
+        Root<Compromisso> c = update.from(Compromisso.class);
+        // spec já exclui as linhas que estão no status pedido: todas as atualizadas mudam de coluna
+        update.set(c.<String>get("status"), status)
+                .set(c.<String>get("ordem"), cb.nullLiteral(String.class))
+                .set(c.<Long>get("versaoAlteracao"), versaoAlteracao)
+                .set(c.<Long>get("versao"), cb.sum(c.<Long>get("versao"), 1L))
+                .where(spec.toPredicate(c, null, cb));
+        // Como @Modifying(flushAutomatically = true, clearAutomatically = true): entidades já
+        // carregadas na transação não ficam com o status antigo
+        entityManager.flush();
+        int atualizados = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return atualizados;
+    }
+
+    @Override
+    public int atualizarCampos(Long id, Long usuarioId, Long versaoEsperada, Map<String, Object> campos) {
+        return atualizarCampos(id, usuarioId, versaoEsperada, campos, null);
+    }
+
+    @Override
+    public int atualizarCampos(Long id, Long usuarioId, Long versaoEsperada, Map<String, Object> campos,
+                               String statusAtual) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Compromisso> update = cb.createCriteriaUpdate(Compromisso.class);
+        Root<Compromisso> c = update.from(Compromisso.class);
+        campos.forEach((atributo, valor) -> update.set(atributo, valor));
+        update.set(c.<Long>get("versao"), cb.sum(c.<Long>get("versao"), 1L));
+        Predicate condicao = cb.and(cb.equal(c.get("id"), id), cb.equal(c.get("usuario").get("id"), usuarioId));
+        if (versaoEsperada != null) {
+            condicao = cb.and(condicao, cb.equal(c.get("versao"), versaoEsperada));
+        }
+        if (statusAtual != null) {
+            condicao = cb.and(condicao, cb.equal(c.get("status"), statusAtual));
+        }
+        update.where(condicao);
+
+        entityManager.flush();
+        int atualizados = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return atualizados;
+    }
+
+    private static String padraoLike(String texto) {
+        String escapado = texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    private static CompromissoResponseDTO mapearDTO(ResultSet rs, int linha) throws SQLException {
+        return new CompromissoResponseDTO(
+                rs.getLong("id"),
+                rs.getString("titulo"),
+                rs.getString("descricao"),
+                rs.getObject("data_hora", LocalDateTime.class),
+                rs.getObject("valor", Double.class),
+                rs.getString("tipo"),
+                rs.getString("status"),
+                rs.getObject("urgente", Boolean.class),
+                rs.getObject("versao", Long.class),
+                rs.getString("ordem"));
+    }
+}
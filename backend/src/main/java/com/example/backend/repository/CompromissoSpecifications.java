@@ -0,0 +1,106 @@
+package com.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+
+/**
+ * Predicados de {@link Compromisso} para consultas com filtros combináveis. Todos são
+ * traduzidos para SQL; nenhum filtro é aplicado em memória depois da consulta.
+ */
+public final class CompromissoSpecifications {
+
+    private CompromissoSpecifications() {
+    }
+
+    /**
+     * Combina os filtros preenchidos de {@code filtro}, sempre restritos ao usuário.
+     */
+    public static Specification<Compromisso> comFiltro(String username, CompromissoFiltroDTO filtro) {
+        return aplicarFiltro(doUsuario(username), filtro);
+    }
+
+    /**
+     * Acrescenta a {@code spec} os filtros preenchidos de {@code filtro}.
+     */
+    public static Specification<Compromisso> aplicarFiltro(Specification<Compromisso> spec, CompromissoFiltroDTO filtro) {
+        if (filtro.getTipo() != null && !filtro.getTipo().isEmpty()) {
+            spec = spec.and(tipoEm(filtro.getTipo()));
+        }
+        if (filtro.getStatus() != null && !filtro.getStatus().isEmpty()) {
+            spec = spec.and(statusEm(filtro.getStatus()));
+        }
+        if (filtro.getUrgente() != null) {
+            spec = spec.and(urgente(filtro.getUrgente()));
+        }
+        if (filtro.getFrom() != null) {
+            spec = spec.and(aPartirDe(filtro.getFrom()));
+        }
+        if (filtro.getTo() != null) {
+            spec = spec.and(antesDe(filtro.getTo()));
+        }
+        if (filtro.getValorMin() != null) {
+            spec = spec.and(valorMinimo(filtro.getValorMin().doubleValue()));
+        }
+        if (filtro.getValorMax() != null) {
+            spec = spec.and(valorMaximo(filtro.getValorMax().doubleValue()));
+        }
+        return spec;
+    }
+
+    public static Specification<Compromisso> doUsuario(String username) {
+        return (root, query, cb) -> cb.equal(root.get("usuario").get("username"), username);
+    }
+
+    // Compara direto a chave estrangeira (sem join), o que também serve para UPDATE em massa
+    public static Specification<Compromisso> doUsuarioId(Long usuarioId) {
+        return (root, query, cb) -> cb.equal(root.get("usuario").get("id"), usuarioId);
+    }
+
+    public static Specification<Compromisso> idEm(List<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Compromisso> statusDiferente(CompromissoStatus status) {
+        return (root, query, cb) -> cb.notEqual(root.get("status"), status.name());
+    }
+
+    public static Specification<Compromisso> tipoEm(List<CompromissoTipo> tipos) {
+        return (root, query, cb) -> root.get("tipo").in(tipos.stream().map(Enum::name).toList());
+    }
+
+    public static Specification<Compromisso> statusEm(List<CompromissoStatus> status) {
+        return (root, query, cb) -> root.get("status").in(status.stream().map(Enum::name).toList());
+    }
+
+    // Literal booleano (sem parâmetro) para o planner do PostgreSQL poder usar o índice
+    // parcial idx_compromisso_usuario_urgente_data_hora (... WHERE urgente).
+    // Nulo conta como não urgente, como em Compromisso.isUrgente()
+    public static Specification<Compromisso> urgente(boolean urgente) {
+        return (root, query, cb) -> urgente
+                ? cb.isTrue(root.<Boolean>get("urgente"))
+                : cb.or(cb.isFalse(root.<Boolean>get("urgente")), cb.isNull(root.<Boolean>get("urgente")));
+    }
+
+    public static Specification<Compromisso> aPartirDe(LocalDateTime inicio) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("dataHora"), inicio);
+    }
+
+    public static Specification<Compromisso> antesDe(LocalDateTime fim) {
+        return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("dataHora"), fim);
+    }
+
+    public static Specification<Compromisso> valorMinimo(double valor) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Double>get("valor"), valor);
+    }
+
+    public static Specification<Compromisso> valorMaximo(double valor) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<Double>get("valor"), valor);
+    }
+}
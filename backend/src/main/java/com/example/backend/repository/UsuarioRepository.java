@@ -1,12 +1,56 @@
 package com.example.backend.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import com.example.backend.dto.EstadoFeed;
+import com.example.backend.dto.VersaoSync;
 import com.example.backend.model.Usuario;
 
+import jakarta.persistence.LockModeType;
+
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Modifying
+    @Query("UPDATE Usuario u SET u.versaoDados = u.versaoDados + 1, u.dadosAlteradosEm = :agora WHERE u.username = :username")
+    int incrementarVersaoDados(String username, Instant agora);
+
+    @Query("SELECT u.id AS id, u.versaoDados AS versaoDados, u.versaoMinimaSync AS versaoMinimaSync " +
+           "FROM Usuario u WHERE u.username = :username")
+    Optional<VersaoSync> buscarVersaoSync(String username);
+
+    // Trava a linha do usuário como o UPDATE de incrementarVersaoDados, mas sem mudar a versão:
+    // para escritas que podem não alterar nada (DELETE de um id que não existe)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id AS id, u.versaoDados AS versaoDados, u.versaoMinimaSync AS versaoMinimaSync " +
+           "FROM Usuario u WHERE u.username = :username")
+    Optional<VersaoSync> travarVersaoSync(String username);
+
+    // Feed iCalendar: consulta de uma linha pelo índice único do token, sem tocar nos compromissos
+    @Query("SELECT u.id AS id, u.username AS username, u.versaoDados AS versaoDados, " +
+           "u.dadosAlteradosEm AS dadosAlteradosEm FROM Usuario u WHERE u.feedToken = :token")
+    Optional<EstadoFeed> buscarEstadoFeed(String token);
+
+    // Sem alterações anteriores, o momento da criação do token passa a ser o Last-Modified do feed
+    @Modifying
+    @Query("UPDATE Usuario u SET u.feedToken = :token, " +
+           "u.dadosAlteradosEm = COALESCE(u.dadosAlteradosEm, :agora) WHERE u.username = :username")
+    int definirFeedToken(String username, String token, Instant agora);
+
+    @Query("SELECT u.feedToken FROM Usuario u WHERE u.username = :username")
+    Optional<String> buscarFeedToken(String username);
+
+    // Antes de descartar tombstones, registra por usuário a maior versão que será perdida
+    @Modifying
+    @Query("UPDATE Usuario u SET u.versaoMinimaSync = " +
+           "(SELECT MAX(r.versao) FROM CompromissoRemovido r WHERE r.username = u.username AND r.removidoEm < :limite) " +
+           "WHERE EXISTS (SELECT 1 FROM CompromissoRemovido r WHERE r.username = u.username AND r.removidoEm < :limite)")
+    int avancarVersaoMinimaSync(Instant limite);
 }
@@ -0,0 +1,224 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.dto.EstadoFeed;
+import com.example.backend.exception.RecursoNaoEncontradoException;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.util.IcsWriter;
+
+/**
+ * Feed iCalendar por usuário (GET /api/calendario/{token}.ics) para assinatura no Google
+ * Agenda, Outlook ou Apple Calendar. Os aplicativos não enviam o JWT, então o feed é
+ * autenticado por um token aleatório na URL, que o usuário pode trocar ou revogar.
+ *
+ * Os aplicativos consultam a URL a cada poucos minutos, quase sempre sem mudanças: o estado do
+ * token (dono, versão dos dados e momento da última alteração) fica em cache por
+ * {@code cache-segundos} e basta para responder 304, então essas consultas não chegam ao banco.
+ * As alterações feitas nesta instância invalidam o cache no commit; as feitas em outras
+ * instâncias (e a revogação do token) aparecem em até {@code cache-segundos}.
+ */
+@Service
+public class CalendarioService {
+
+    private static final int TAMANHO_TOKEN_BYTES = 32;
+    private static final int TAMANHO_BUFFER_ICS = 16 * 1024;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Value("${compromisso.calendario.cache-segundos:60}")
+    private long cacheSegundos;
+
+    @Value("${compromisso.calendario.duracao-minutos:60}")
+    private long duracaoMinutos;
+
+    @Value("${compromisso.calendario.intervalo-minutos:15}")
+    private long intervaloMinutos;
+
+    // Token -> estado lido do banco. Só tokens válidos entram, então tokens inventados não ocupam memória
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    // Usuário -> token em cache, para a invalidação não percorrer o cache inteiro
+    private final Map<String, String> tokenPorUsuario = new ConcurrentHashMap<>();
+
+    // Incrementada a cada descarte: uma leitura iniciada antes dele não pode guardar o estado antigo
+    private final AtomicLong geracao = new AtomicLong();
+
+    private record Entrada(EstadoFeed estado, long lidoEm) {
+    }
+
+    /**
+     * Gera um novo token de feed para o usuário; o anterior, se houver, deixa de valer.
+     *
+     * @return o token, a ser usado em /api/calendario/{token}.ics
+     */
+    @Transactional
+    public String gerarToken(String username) {
+        byte[] bytes = new byte[TAMANHO_TOKEN_BYTES];
+        ALEATORIO.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String anterior = usuarioRepository.buscarFeedToken(username).orElse(null);
+        if (usuarioRepository.definirFeedToken(username, token, Instant.now()) == 0) {
+            throw new RecursoNaoEncontradoException("Usuário não encontrado: " + username);
+        }
+        aposCommit(() -> descartar(username, anterior));
+        return token;
+    }
+
+    /**
+     * Revoga o token de feed do usuário; a URL passa a responder 404.
+     */
+    @Transactional
+    public void revogarToken(String username) {
+        String anterior = usuarioRepository.buscarFeedToken(username).orElse(null);
+        if (usuarioRepository.definirFeedToken(username, null, Instant.now()) == 0) {
+            throw new RecursoNaoEncontradoException("Usuário não encontrado: " + username);
+        }
+        aposCommit(() -> descartar(username, anterior));
+    }
+
+    /**
+     * Estado do feed do token, do cache quando possível.
+     *
+     * @throws RecursoNaoEncontradoException se o token não existe ou foi revogado
+     */
+    public EstadoFeed estado(String token) {
+        long agora = System.nanoTime();
+        Entrada entrada = cache.get(token);
+        if (entrada != null && agora - entrada.lidoEm() < cacheSegundos * 1_000_000_000L) {
+            return entrada.estado();
+        }
+        long geracaoLida = geracao.get();
+        EstadoFeed estado = usuarioRepository.buscarEstadoFeed(token).orElse(null);
+        if (estado == null) {
+            cache.remove(token);
+            throw new RecursoNaoEncontradoException("Feed de calendário não encontrado");
+        }
+        if (cacheSegundos > 0) {
+            Entrada nova = new Entrada(estado, agora);
+            tokenPorUsuario.put(estado.getUsername(), token);
+            cache.put(token, nova);
+            // Houve descarte durante a leitura (ou entre ela e o put): o estado lido pode ser anterior
+            // ao commit, então sai do cache. Conferir depois do put cobre o descarte concorrente
+            if (geracao.get() != geracaoLida) {
+                cache.remove(token, nova);
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Descarta o estado em cache do feed do usuário depois do commit da transação atual (ou na
+     * hora, fora de transação), para a próxima consulta ver a nova versão. Chamado a cada
+     * incremento de {@code versaoDados}.
+     */
+    public void invalidar(String username) {
+        if (cacheSegundos > 0) {
+            aposCommit(() -> descartar(username, null));
+        }
+    }
+
+    /**
+     * Escreve o VCALENDAR com um VEVENT por compromisso do dono do feed, lidos incrementalmente
+     * pelo cursor JDBC em ordem de data.
+     */
+    @Transactional(readOnly = true)
+    public void escreverIcs(EstadoFeed estado, OutputStream out) throws IOException {
+        IcsWriter ics = new IcsWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TAMANHO_BUFFER_ICS);
+        // DTSTAMP estável por versão: o mesmo ETag sempre corresponde aos mesmos bytes
+        Instant dtstamp = estado.getDadosAlteradosEm() != null ? estado.getDadosAlteradosEm() : Instant.EPOCH;
+        String duracao = "PT" + duracaoMinutos + "M";
+        String intervalo = "PT" + intervaloMinutos + "M";
+
+        ics.begin("VCALENDAR")
+                .property("VERSION", "2.0")
+                .property("PRODID", "-//LifeOS//Compromissos//PT")
+                .property("CALSCALE", "GREGORIAN")
+                .property("METHOD", "PUBLISH")
+                .text("X-WR-CALNAME", "Compromissos")
+                // Sugestão de intervalo de atualização para os aplicativos que a respeitam
+                .property("REFRESH-INTERVAL;VALUE=DURATION", intervalo)
+                .property("X-PUBLISHED-TTL", intervalo);
+
+        try (Stream<CompromissoResponseDTO> linhas = compromissoRepository.streamProjecao(estado.getUsername())) {
+            Iterator<CompromissoResponseDTO> it = linhas.iterator();
+            while (it.hasNext()) {
+                CompromissoResponseDTO c = it.next();
+                LocalDateTime inicio = c.getDataHora();
+                // Datas sem ano de quatro dígitos não têm representação em iCalendar
+                if (inicio == null || inicio.getYear() < 0 || inicio.getYear() > 9999) {
+                    continue;
+                }
+                ics.begin("VEVENT")
+                        .property("UID", "compromisso-" + c.getId() + "@lifeos")
+                        .property("DTSTAMP", dtstamp)
+                        .property("DTSTART", inicio)
+                        .property("DURATION", duracao)
+                        .property("SEQUENCE", c.getVersao() != null ? c.getVersao() : 0)
+                        .text("SUMMARY", c.getTitulo())
+                        .text("DESCRIPTION", c.getDescricao())
+                        .text("CATEGORIES", c.getTipo() != null ? c.getTipo().name() : null)
+                        .property("STATUS", c.getStatus() == CompromissoStatus.CANCELADO ? "CANCELLED" : "CONFIRMED");
+                if (c.isUrgente()) {
+                    ics.property("PRIORITY", 1);
+                }
+                ics.end("VEVENT");
+            }
+        }
+        ics.end("VCALENDAR");
+        ics.flush();
+    }
+
+    // Antes do commit, uma consulta concorrente ainda leria e guardaria o estado antigo
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private void descartar(String username, String tokenAnterior) {
+        geracao.incrementAndGet();
+        String token = tokenPorUsuario.remove(username);
+        if (token != null) {
+            cache.remove(token);
+        }
+        if (tokenAnterior != null) {
+            cache.remove(tokenAnterior);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.exception.ConflitoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Agrupamento (coalescência) de PUTs seguidos no mesmo compromisso, opcional e desligado por
+ * padrão ({@code compromisso.coalescencia.janela-ms=0}). Arrastar um card por várias colunas ou
+ * um formulário com salvamento automático geram rajadas de PUTs no mesmo id em poucas centenas
+ * de milissegundos.
+ *
+ * O primeiro PUT vai direto ao banco e abre uma janela para aquele id. Os PUTs seguintes do
+ * mesmo usuário dentro da janela só substituem o estado pendente e respondem na hora com a
+ * versão que ele terá; ao fim da janela o último estado é gravado com um único UPDATE, que
+ * confere a versão (If-Match) para não sobrescrever alterações feitas por outro caminho.
+ * PUTs com If-Match nunca são agrupados: o cliente precisa saber se a sua versão foi gravada,
+ * então os pendentes do id são gravados antes e o PUT vai direto ao banco.
+ *
+ * Se a gravação do estado pendente falha, o cliente já recebeu 200: a falha fica registrada e
+ * a próxima requisição do usuário para o mesmo id recebe 409 com o motivo, em vez de a
+ * alteração sumir em silêncio.
+ *
+ * Leitura das próprias escritas: qualquer outra requisição do usuário em /api/compromissos
+ * descarrega antes os seus pendentes ({@link #descarregar(String)}, chamado pelo
+ * CoalescenciaInterceptor). O estado fica em memória, então a garantia vale por instância.
+ */
+@Service
+public class CoalescenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescenciaService.class);
+
+    // Falhas não reclamadas nesse prazo são esquecidas (o id pode nunca mais ser acessado)
+    private static final Duration RETENCAO_FALHAS = Duration.ofMinutes(10);
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${compromisso.coalescencia.janela-ms:0}")
+    private long janelaMs;
+
+    // Janela aberta por compromisso; removida quando a janela fecha ou é descarregada
+    private final Map<Long, Janela> janelas = new ConcurrentHashMap<>();
+
+    // Gravação agrupada que falhou, até ser informada na próxima requisição do usuário para o id
+    private final Map<Long, Falha> falhas = new ConcurrentHashMap<>();
+
+    private Counter diretas;
+    private Counter agrupadas;
+    private Counter gravacoesAgrupadas;
+    private Counter descartadas;
+
+    @PostConstruct
+    void registrarMetricas() {
+        diretas = Counter.builder("compromisso.coalescencia.escritas").tag("tipo", "direta")
+                .description("PUTs gravados na hora, abrindo uma janela").register(meterRegistry);
+        agrupadas = Counter.builder("compromisso.coalescencia.escritas").tag("tipo", "agrupada")
+                .description("PUTs recebidos dentro de uma janela aberta").register(meterRegistry);
+        gravacoesAgrupadas = Counter.builder("compromisso.coalescencia.gravacoes")
+                .description("UPDATEs que gravaram o último estado de uma janela").register(meterRegistry);
+        descartadas = Counter.builder("compromisso.coalescencia.descartadas")
+                .description("Estados pendentes descartados por falha na gravação").register(meterRegistry);
+        Gauge.builder("compromisso.coalescencia.razao", this, CoalescenciaService::razao)
+                .description("PUTs recebidos por UPDATE executado").register(meterRegistry);
+        Gauge.builder("compromisso.coalescencia.pendentes", janelas, Map::size)
+                .description("Janelas abertas").register(meterRegistry);
+    }
+
+    public boolean isAtiva() {
+        return janelaMs > 0;
+    }
+
+    /**
+     * PUT com agrupamento. Com a janela desligada, ou com If-Match, equivale a
+     * {@link CompromissoService#atualizar}.
+     *
+     * @throws ConflitoException se a gravação agrupada anterior do id falhou
+     */
+    public CompromissoResponseDTO atualizar(Long id, CompromissoRequestDTO dto, String username, Long versaoEsperada) {
+        if (!isAtiva()) {
+            return compromissoService.atualizar(id, dto, username, versaoEsperada);
+        }
+        if (versaoEsperada != null) {
+            descarregar(id, username);
+            verificarFalha(id, username);
+            return compromissoService.atualizar(id, dto, username, versaoEsperada);
+        }
+        verificarFalha(id, username);
+        while (true) {
+            Janela janela = janelas.computeIfAbsent(id, k -> new Janela(username));
+            synchronized (janela) {
+                if (janela.fechada) {
+                    continue;
+                }
+                if (!janela.username.equals(username)) {
+                    // Compromisso de outro usuário: o caminho normal responde 403/404
+                    return compromissoService.atualizar(id, dto, username, null);
+                }
+                if (janela.versao == null) {
+                    return abrir(id, janela, dto);
+                }
+                janela.pendente = dto;
+                agrupadas.increment();
+                return compromissoService.previa(id, dto, username, janela.versao + 1);
+            }
+        }
+    }
+
+    /**
+     * Grava agora os estados pendentes do usuário e fecha as suas janelas, antes de uma leitura
+     * ou de outra escrita (que mudaria a versão conhecida pela janela).
+     */
+    public void descarregar(String username) {
+        if (!isAtiva()) {
+            return;
+        }
+        janelas.forEach((id, janela) -> {
+            if (janela.username.equals(username)) {
+                synchronized (janela) {
+                    if (!janela.fechada) {
+                        fechar(id, janela);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Lança a falha da última gravação agrupada do compromisso, se houver, e a esquece: a
+     * requisição seguinte segue normalmente. Chamado para toda requisição do usuário a
+     * /api/compromissos/{id}, depois de descarregar os pendentes.
+     *
+     * @throws ConflitoException se o último estado agrupado do id não pôde ser gravado
+     */
+    public void verificarFalha(Long id, String username) {
+        Falha falha = falhas.get(id);
+        if (falha != null && falha.username().equals(username) && falhas.remove(id, falha)) {
+            throw new ConflitoException("A alteração agrupada anterior deste compromisso não foi gravada: "
+                    + falha.mensagem());
+        }
+    }
+
+    // Grava agora o pendente de um único id do usuário (PUT com If-Match)
+    private void descarregar(Long id, String username) {
+        Janela janela = janelas.get(id);
+        if (janela != null && janela.username.equals(username)) {
+            synchronized (janela) {
+                if (!janela.fechada) {
+                    fechar(id, janela);
+                }
+            }
+        }
+    }
+
+    // Chamado com o monitor da janela: a gravação direta também serializa os PUTs seguintes do id
+    private CompromissoResponseDTO abrir(Long id, Janela janela, CompromissoRequestDTO dto) {
+        CompromissoResponseDTO atualizado;
+        try {
+            atualizado = compromissoService.atualizar(id, dto, janela.username, null);
+        } catch (RuntimeException e) {
+            janela.fechada = true;
+            janelas.remove(id, janela);
+            throw e;
+        }
+        diretas.increment();
+        janela.versao = atualizado.getVersao();
+        taskScheduler.schedule(() -> fecharNoPrazo(id, janela), Instant.now().plus(Duration.ofMillis(janelaMs)));
+        return atualizado;
+    }
+
+    private void fecharNoPrazo(Long id, Janela janela) {
+        synchronized (janela) {
+            if (!janela.fechada) {
+                fechar(id, janela);
+            }
+        }
+    }
+
+    // Chamado com o monitor da janela
+    private void fechar(Long id, Janela janela) {
+        try {
+            if (janela.pendente != null) {
+                compromissoService.atualizar(id, janela.pendente, janela.username, janela.versao);
+                gravacoesAgrupadas.increment();
+            }
+        } catch (RuntimeException e) {
+            descartadas.increment();
+            logger.warn("Escrita agrupada do compromisso {} descartada: {}", id, e.getMessage());
+            Instant agora = Instant.now();
+            falhas.values().removeIf(f -> f.registradaEm().isBefore(agora.minus(RETENCAO_FALHAS)));
+            falhas.put(id, new Falha(janela.username, e.getMessage(), agora));
+        } finally {
+            janela.fechada = true;
+            janelas.remove(id, janela);
+        }
+    }
+
+    private double razao() {
+        double updates = diretas.count() + gravacoesAgrupadas.count();
+        return updates == 0 ? 0 : (diretas.count() + agrupadas.count()) / updates;
+    }
+
+    private record Falha(String username, String mensagem, Instant registradaEm) {
+    }
+
+    private static class Janela {
+        private final String username;
+        private Long versao; // Versão gravada pelo PUT que abriu a janela
+        private CompromissoRequestDTO pendente;
+        private boolean fechada;
+
+        Janela(String username) {
+            this.username = username;
+        }
+    }
+}
@@ -1,116 +1,942 @@
 package com.example.backend.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.backend.dto.AgendaContagens;
+import com.example.backend.dto.AlteracaoStatusLoteDTO;
+import com.example.backend.dto.AlteracoesDTO;
+import com.example.backend.dto.AgendaDTO;
+import com.example.backend.dto.AgendaDiaDTO;
+import com.example.backend.dto.BuscaDTO;
+import com.example.backend.dto.ColunaKanban;
+import com.example.backend.dto.CompromissoEstatisticasDTO;
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.dto.CompromissoLoteDTO;
+import com.example.backend.dto.CompromissoPaginaDTO;
+import com.example.backend.dto.ContagemStatus;
+import com.example.backend.dto.KanbanColunaDTO;
+import com.example.backend.dto.KanbanDTO;
+import com.example.backend.dto.MovimentoKanbanDTO;
+import com.example.backend.dto.ResultadoLoteDTO;
 import com.example.backend.dto.CompromissoRequestDTO;
 import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.dto.EstatisticaLinha;
+import com.example.backend.dto.VersaoSync;
+import com.example.backend.entity.CompromissoRemovido;
 import com.example.backend.exception.AcessoNegadoException;
+import com.example.backend.exception.PreCondicaoFalhouException;
 import com.example.backend.exception.RecursoNaoEncontradoException;
+import com.example.backend.exception.RequisicaoInvalidaException;
 import com.example.backend.model.Compromisso;
 import com.example.backend.model.CompromissoStatus;
 import com.example.backend.model.CompromissoTipo;
 import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
 import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.CompromissoSpecifications;
 import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.util.CursorUtils;
+import com.example.backend.util.RankUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class CompromissoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CompromissoService.class);
+
+    private static final int TAMANHO_MAXIMO_BUSCA = 200;
+
+    // Campos aceitos no PATCH (nomes de CompromissoRequestDTO) e os que aceitam null
+    private static final List<String> CAMPOS_PATCH =
+            List.of("titulo", "descricao", "dataHora", "valor", "tipo", "status", "urgente");
+    private static final Set<String> CAMPOS_PATCH_NULAVEIS = Set.of("descricao", "valor");
+
+    private static final char SEPARADOR_CURSOR_KANBAN = '|';
+
     @Autowired
     private CompromissoRepository compromissoRepository;
 
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private CalendarioService calendarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${compromisso.pagina.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${compromisso.pagina.tamanho-maximo:200}")
+    private int tamanhoPaginaMaximo;
+
+    @Value("${compromisso.kanban.limite-coluna:20}")
+    private int limiteColunaKanban;
+
+    @Value("${compromisso.kanban.rebalanceamento-tamanho-ordem:16}")
+    private int tamanhoRebalanceamentoOrdem;
+
+    @Value("${compromisso.agenda.janela-maxima-dias:366}")
+    private int janelaAgendaMaximaDias;
+
+    @Value("${compromisso.sync.retencao-removidos-dias:30}")
+    private int retencaoRemovidosDias;
+
+    @Value("${compromisso.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    /**
+     * Lista via projeção: as linhas vão direto para o DTO, sem passar pelo contexto
+     * de persistência nem carregar o usuário (o username já vem do principal).
+     */
     @Transactional(readOnly = true)
     public List<CompromissoResponseDTO> listarTodos(String username) {
-        return compromissoRepository.findByUsuarioUsername(username).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return comUsername(compromissoRepository.listarProjecao(username), username);
+    }
+
+    /**
+     * Lista com filtros opcionais (tipo, status, urgente, período e faixa de valor).
+     * Os filtros viram predicados SQL apoiados nos índices por usuário, então só as
+     * linhas selecionadas saem do banco. Sem filtros, equivale a {@link #listarTodos}.
+     */
+    @Transactional(readOnly = true)
+    public List<CompromissoResponseDTO> listar(String username, CompromissoFiltroDTO filtro) {
+        if (filtro == null || filtro.isVazio()) {
+            return listarTodos(username);
+        }
+        validarFiltro(filtro);
+        return comUsername(compromissoRepository.filtrar(CompromissoSpecifications.comFiltro(username, filtro)), username);
+    }
+
+    /**
+     * Versão atual dos dados do usuário no formato usado como ETag pelas leituras.
+     * Inclui o id do usuário para que a mesma versão de contas diferentes nunca coincida.
+     * Deve ser lida antes dos dados: assim o ETag nunca é mais novo que a resposta.
+     */
+    @Transactional(readOnly = true)
+    public String versaoEtag(String username) {
+        VersaoSync versoes = usuarioRepository.buscarVersaoSync(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+        return versoes.getId() + "-" + versoes.getVersaoDados();
+    }
+
+    /**
+     * Escreve todos os compromissos do usuário incrementalmente em {@code out}, como um
+     * array JSON ou como NDJSON (um objeto por linha). As linhas são lidas do banco em
+     * lotes pelo cursor JDBC e serializadas uma a uma, então o heap usado não depende
+     * da quantidade de compromissos. A transação fica aberta durante toda a escrita.
+     */
+    @Transactional(readOnly = true)
+    public void escreverJson(String username, OutputStream out, boolean ndjson) throws IOException {
+        try (Stream<CompromissoResponseDTO> linhas = compromissoRepository.streamProjecao(username);
+             JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            if (!ndjson) {
+                gen.writeStartArray();
+            }
+            Iterator<CompromissoResponseDTO> it = linhas.iterator();
+            while (it.hasNext()) {
+                CompromissoResponseDTO dto = it.next();
+                dto.setUsername(username);
+                gen.writeObject(dto);
+                if (ndjson) {
+                    gen.writeRaw('\n');
+                }
+            }
+            if (!ndjson) {
+                gen.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Lista compromissos paginados por cursor (keyset) ordenados por (dataHora, id).
+     * Cada página busca apenas {@code limite + 1} linhas a partir da posição do cursor,
+     * então o custo não cresce com a profundidade da página, ao contrário de OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public CompromissoPaginaDTO listarPagina(String username, String cursor, Integer limite) {
+        int tamanho = resolverTamanhoPagina(limite);
+        PageRequest pagina = PageRequest.of(0, tamanho + 1);
+
+        List<CompromissoResponseDTO> linhas;
+        if (cursor == null || cursor.isBlank()) {
+            linhas = compromissoRepository.buscarPrimeiraPagina(username, pagina);
+        } else {
+            CursorUtils.Posicao posicao = decodificarCursor(cursor);
+            linhas = compromissoRepository.buscarPaginaApos(
+                    username, LocalDateTime.parse(posicao.chave()), posicao.id(), pagina);
+        }
+
+        List<CompromissoResponseDTO> itens = cortarPagina(linhas, tamanho);
+        return new CompromissoPaginaDTO(comUsername(itens, username),
+                proximoCursor(linhas, tamanho, c -> c.getDataHora().toString()));
+    }
+
+    /**
+     * Quadro Kanban: para cada status, os primeiros itens na ordem manual e o total da coluna.
+     * Cada coluna é uma consulta com LIMIT no índice (user_id, status, ordem), então
+     * colunas grandes (ex.: milhares de CONCLUIDO) não são carregadas por inteiro.
+     */
+    @Transactional(readOnly = true)
+    public KanbanDTO kanban(String username, Integer limitePorColuna) {
+        int tamanho = resolverTamanhoColuna(limitePorColuna);
+
+        Map<CompromissoStatus, Long> totais = new EnumMap<>(CompromissoStatus.class);
+        for (ContagemStatus contagem : compromissoRepository.contarPorStatus(username)) {
+            totais.merge(CompromissoStatus.fromNome(contagem.getStatus()), valorOuZero(contagem.getTotal()), Long::sum);
+        }
+
+        List<KanbanColunaDTO> colunas = new ArrayList<>();
+        for (CompromissoStatus status : CompromissoStatus.values()) {
+            KanbanColunaDTO coluna = totais.containsKey(status)
+                    ? buscarColuna(username, status, null, tamanho)
+                    : new KanbanColunaDTO(status, 0L, new ArrayList<>(), null);
+            coluna.setTotal(totais.getOrDefault(status, 0L));
+            colunas.add(coluna);
+        }
+        return new KanbanDTO(colunas);
+    }
+
+    /**
+     * Continuação de uma coluna do Kanban a partir do cursor devolvido em {@link #kanban}.
+     * O total não é recalculado aqui (vem nulo); o cliente já o recebeu no quadro.
+     */
+    @Transactional(readOnly = true)
+    public KanbanColunaDTO kanbanColuna(String username, CompromissoStatus status, String cursor, Integer limite) {
+        return buscarColuna(username, status, cursor, resolverTamanhoColuna(limite));
+    }
+
+    /**
+     * Agenda de uma janela de dias [from, to), já ordenada e agrupada por dia,
+     * junto com os contadores de hoje / próximos 7 / próximos 15 dias relativos a {@code hoje}.
+     * O custo depende apenas do tamanho da janela, não do histórico do usuário.
+     */
+    @Transactional(readOnly = true)
+    public AgendaDTO agenda(String username, LocalDate from, LocalDate to, LocalDate hoje) {
+        if (!to.isAfter(from)) {
+            throw new RequisicaoInvalidaException("O fim da janela deve ser posterior ao início");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > janelaAgendaMaximaDias) {
+            throw new RequisicaoInvalidaException("A janela deve ter no máximo " + janelaAgendaMaximaDias + " dias");
+        }
+
+        List<AgendaDiaDTO> dias = new ArrayList<>();
+        AgendaDiaDTO diaAtual = null;
+        for (CompromissoResponseDTO c : compromissoRepository.buscarJanela(username, from.atStartOfDay(), to.atStartOfDay())) {
+            c.setUsername(username);
+            LocalDate data = c.getDataHora().toLocalDate();
+            if (diaAtual == null || !diaAtual.getData().equals(data)) {
+                diaAtual = new AgendaDiaDTO(data, new ArrayList<>());
+                dias.add(diaAtual);
+            }
+            diaAtual.getItens().add(c);
+        }
+
+        // Mesma semântica do AgendaView: "próximos N dias" inclui hoje e o N-ésimo dia
+        AgendaContagens contagens = compromissoRepository.contarAgenda(username,
+                hoje.atStartOfDay(),
+                hoje.plusDays(1).atStartOfDay(),
+                hoje.plusDays(8).atStartOfDay(),
+                hoje.plusDays(16).atStartOfDay());
+
+        AgendaDTO agenda = new AgendaDTO();
+        agenda.setFrom(from);
+        agenda.setTo(to);
+        agenda.setHoje(valorOuZero(contagens.getHoje()));
+        agenda.setProximos7(valorOuZero(contagens.getProximos7()));
+        agenda.setProximos15(valorOuZero(contagens.getProximos15()));
+        agenda.setDias(dias);
+        return agenda;
+    }
+
+    /**
+     * KPIs do dashboard calculados no banco: uma única consulta agregada por (tipo, status)
+     * com a contagem de futuros e a soma de valores; aqui só se consolidam os poucos grupos.
+     */
+    @Transactional(readOnly = true)
+    public CompromissoEstatisticasDTO estatisticas(String username, LocalDateTime agora) {
+        Map<CompromissoTipo, Long> porTipo = new EnumMap<>(CompromissoTipo.class);
+        Map<CompromissoTipo, BigDecimal> valorPorTipo = new EnumMap<>(CompromissoTipo.class);
+        Map<CompromissoStatus, Long> porStatus = new EnumMap<>(CompromissoStatus.class);
+        for (CompromissoTipo tipo : CompromissoTipo.values()) {
+            porTipo.put(tipo, 0L);
+            valorPorTipo.put(tipo, BigDecimal.ZERO);
+        }
+        for (CompromissoStatus status : CompromissoStatus.values()) {
+            porStatus.put(status, 0L);
+        }
+
+        long total = 0;
+        long proximos = 0;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        for (EstatisticaLinha linha : compromissoRepository.estatisticas(username, agora)) {
+            CompromissoTipo tipo = CompromissoTipo.fromNome(linha.getTipo());
+            CompromissoStatus status = CompromissoStatus.fromNome(linha.getStatus());
+            long quantidade = valorOuZero(linha.getTotal());
+            BigDecimal valor = linha.getValor() != null ? BigDecimal.valueOf(linha.getValor()) : BigDecimal.ZERO;
+
+            total += quantidade;
+            proximos += valorOuZero(linha.getFuturos());
+            valorTotal = valorTotal.add(valor);
+            porTipo.merge(tipo, quantidade, Long::sum);
+            porStatus.merge(status, quantidade, Long::sum);
+            valorPorTipo.merge(tipo, valor, BigDecimal::add);
+        }
+
+        CompromissoEstatisticasDTO dto = new CompromissoEstatisticasDTO();
+        dto.setTotal(total);
+        dto.setProximos(proximos);
+        dto.setPorTipo(porTipo);
+        dto.setPorStatus(porStatus);
+        dto.setValorTotal(valorTotal);
+        dto.setValorPorTipo(valorPorTipo);
+        return dto;
+    }
+
+    /**
+     * Busca textual paginada em título e descrição (tsvector + GIN no PostgreSQL,
+     * LIKE nos testes com H2), ordenada por relevância.
+     */
+    @Transactional(readOnly = true)
+    public BuscaDTO buscar(String username, String q, Integer pagina, Integer limite) {
+        if (q == null || q.isBlank()) {
+            throw new RequisicaoInvalidaException("O termo de busca é obrigatório");
+        }
+        if (q.length() > TAMANHO_MAXIMO_BUSCA) {
+            throw new RequisicaoInvalidaException("O termo de busca deve ter no máximo " + TAMANHO_MAXIMO_BUSCA + " caracteres");
+        }
+        int numeroPagina = pagina != null ? pagina : 0;
+        if (numeroPagina < 0) {
+            throw new RequisicaoInvalidaException("A página não pode ser negativa");
+        }
+        int tamanho = resolverTamanhoPagina(limite);
+
+        List<CompromissoResponseDTO> linhas = compromissoRepository.buscarTexto(
+                username, q, numeroPagina * tamanho, tamanho + 1);
+        boolean temMais = linhas.size() > tamanho;
+        return new BuscaDTO(q, numeroPagina, temMais, comUsername(cortarPagina(linhas, tamanho), username));
+    }
+
+    /**
+     * Sincronização incremental: o que foi criado, alterado ou excluído depois da versão
+     * {@code desde} devolvida por uma chamada anterior. Sem {@code desde}, ou quando os
+     * tombstones necessários já foram descartados, devolve a lista completa com {@code reset}.
+     * As consultas são limitadas à versão lida no início, então alterações concorrentes
+     * ficam para a próxima sincronização em vez de se perderem.
+     */
+    @Transactional(readOnly = true)
+    public AlteracoesDTO alteracoes(String username, Long desde) {
+        VersaoSync versoes = usuarioRepository.buscarVersaoSync(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+        long versao = versoes.getVersaoDados();
+
+        if (desde == null || desde < versoes.getVersaoMinimaSync() || desde > versao) {
+            return new AlteracoesDTO(versao, true, listarTodos(username), new ArrayList<>());
+        }
+
+        List<CompromissoResponseDTO> alterados = compromissoRepository.buscarAlteracoes(username, desde, versao);
+        List<Long> removidos = compromissoRemovidoRepository.buscarRemovidos(username, desde, versao);
+        return new AlteracoesDTO(versao, false, comUsername(alterados, username), removidos);
+    }
+
+    /**
+     * Um compromisso do usuário, lido pela projeção. A consulta já filtra pelo dono; só quando
+     * não encontra nada uma segunda consulta distingue 403 de 404.
+     */
+    @Transactional(readOnly = true)
+    public CompromissoResponseDTO buscarPorId(Long id, String username) {
+        CompromissoResponseDTO dto = compromissoRepository.buscarProjecaoDoUsuario(id, username)
+                .orElseThrow(() -> compromissoRepository.existsById(id)
+                        ? new AcessoNegadoException("Você não tem permissão para acessar este recurso.")
+                        : new RecursoNaoEncontradoException("Compromisso não encontrado com ID: " + id));
+        dto.setUsername(username);
+        return dto;
     }
 
     @Transactional
     public CompromissoResponseDTO criar(CompromissoRequestDTO dto, String username) {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+        return criar(dto, username, incrementarVersao(username));
+    }
 
+    // Os overloads que recebem VersaoSync rodam na transação de quem já incrementou a versão do
+    // usuário (OperacoesLoteService: uma vez por lote atômico), sem resolver o usuário de novo
+    CompromissoResponseDTO criar(CompromissoRequestDTO dto, String username, VersaoSync versoes) {
         Compromisso compromisso = toEntity(dto);
-        compromisso.setUsuario(usuario);
+        compromisso.setUsuario(entityManager.getReference(Usuario.class, versoes.getId()));
+        compromisso.setVersaoAlteracao(versoes.getVersaoDados());
+        atribuirOrdem(versoes.getId(), List.of(compromisso));
 
         Compromisso salvo = compromissoRepository.save(compromisso);
-        return toDTO(salvo);
+        return toDTO(salvo, username);
     }
 
+    /**
+     * Cria vários compromissos em uma transação: o usuário é resolvido e a versão de
+     * sincronização incrementada uma única vez, e os INSERTs saem em lotes JDBC
+     * (ids da sequência pooled, sem ida ao banco por linha). O contexto de persistência
+     * é descarregado e limpo a cada lote para não crescer com o tamanho da requisição.
+     */
     @Transactional
-    public CompromissoResponseDTO atualizar(Long id, CompromissoRequestDTO dto, String username) {
-        Compromisso compromisso = buscarPorIdEValidarPropriedade(id, username);
-        
-        atualizarDados(compromisso, dto);
-        
-        Compromisso salvo = compromissoRepository.save(compromisso);
-        return toDTO(salvo);
+    public List<CompromissoResponseDTO> criarEmLote(CompromissoLoteDTO lote, String username) {
+        List<CompromissoRequestDTO> itens = lote.getItens();
+        if (itens.size() > tamanhoMaximoLote) {
+            throw new RequisicaoInvalidaException("O lote deve ter no máximo " + tamanhoMaximoLote + " compromissos");
+        }
+        Usuario usuario = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+        long versao = proximaVersao(username);
+
+        List<Compromisso> novos = new ArrayList<>(itens.size());
+        for (CompromissoRequestDTO item : itens) {
+            Compromisso compromisso = toEntity(item);
+            compromisso.setUsuario(usuario);
+            compromisso.setVersaoAlteracao(versao);
+            novos.add(compromisso);
+        }
+        atribuirOrdem(usuario.getId(), novos);
+
+        List<CompromissoResponseDTO> criados = new ArrayList<>(itens.size());
+        for (int i = 0; i < novos.size(); i++) {
+            criados.add(toDTO(compromissoRepository.save(novos.get(i)), username));
+
+            if ((i + 1) % tamanhoLoteJdbc == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return criados;
+    }
+
+    /**
+     * Muda o status de vários compromissos (por ids e/ou filtro) com um único UPDATE
+     * restrito ao usuário, sem carregar entidades. Ids de outros usuários ou inexistentes
+     * são ignorados, assim como itens que já estão no status pedido.
+     */
+    @Transactional
+    public ResultadoLoteDTO alterarStatusEmLote(AlteracaoStatusLoteDTO dto, String username) {
+        boolean temIds = dto.getIds() != null && !dto.getIds().isEmpty();
+        boolean temFiltro = dto.getFiltro() != null && !dto.getFiltro().isVazio();
+        if (!temIds && !temFiltro) {
+            throw new RequisicaoInvalidaException("Informe os ids ou um filtro");
+        }
+        if (temIds && dto.getIds().size() > tamanhoMaximoLote) {
+            throw new RequisicaoInvalidaException("O lote deve ter no máximo " + tamanhoMaximoLote + " compromissos");
+        }
+
+        VersaoSync versoes = incrementarVersao(username);
+        Specification<Compromisso> spec = CompromissoSpecifications.doUsuarioId(versoes.getId())
+                .and(CompromissoSpecifications.statusDiferente(dto.getStatus()));
+        if (temIds) {
+            spec = spec.and(CompromissoSpecifications.idEm(dto.getIds()));
+        }
+        if (temFiltro) {
+            validarFiltro(dto.getFiltro());
+            spec = CompromissoSpecifications.aplicarFiltro(spec, dto.getFiltro());
+        }
+        int atualizados = compromissoRepository.atualizarStatus(spec, dto.getStatus().name(), versoes.getVersaoDados());
+        return new ResultadoLoteDTO(atualizados);
     }
 
+    /**
+     * Substitui os dados do compromisso com um único UPDATE que já filtra pelo dono e,
+     * se {@code versaoEsperada} vier do If-Match, pela versão; só quando nenhuma linha é
+     * afetada uma consulta distingue 404, 403 e 412. A resposta é relida pela mesma projeção
+     * do GET, com a versão e a chave de ordem gravadas.
+     */
     @Transactional
-    public void deletar(Long id, String username) {
-        Compromisso compromisso = buscarPorIdEValidarPropriedade(id, username);
-        compromissoRepository.delete(compromisso);
+    public CompromissoResponseDTO atualizar(Long id, CompromissoRequestDTO dto, String username, Long versaoEsperada) {
+        return atualizar(id, dto, username, versaoEsperada, incrementarVersao(username));
     }
 
-    // Helper Methods
+    CompromissoResponseDTO atualizar(Long id, CompromissoRequestDTO dto, String username, Long versaoEsperada,
+            VersaoSync versoes) {
+        return atualizarCampos(id, camposAtualizaveis(toEntity(dto)), username, versaoEsperada, versoes);
+    }
 
-    private Compromisso buscarPorIdEValidarPropriedade(Long id, String username) {
-        Compromisso compromisso = compromissoRepository.findById(id)
+    /**
+     * Atualização parcial (JSON Merge Patch, RFC 7396): só os campos presentes em
+     * {@code patch} são validados e escritos, com um UPDATE restrito a essas colunas.
+     * {@code null} limpa campos opcionais (descrição, valor). Assim mudar o status de
+     * um compromisso passado não esbarra no {@code @FutureOrPresent} de dataHora.
+     */
+    @Transactional
+    public CompromissoResponseDTO atualizarParcial(Long id, JsonNode patch, String username, Long versaoEsperada) {
+        // Valida antes de travar a linha do usuário
+        Map<String, Object> campos = camposDoPatch(patch);
+        return atualizarCampos(id, campos, username, versaoEsperada, incrementarVersao(username));
+    }
+
+    CompromissoResponseDTO atualizarParcial(Long id, JsonNode patch, String username, Long versaoEsperada,
+            VersaoSync versoes) {
+        return atualizarCampos(id, camposDoPatch(patch), username, versaoEsperada, versoes);
+    }
+
+    // Campos presentes no merge patch, validados um a um, já com os valores de coluna
+    private Map<String, Object> camposDoPatch(JsonNode patch) {
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            throw new RequisicaoInvalidaException("Informe ao menos um campo para atualizar");
+        }
+        patch.fieldNames().forEachRemaining(campo -> {
+            if (!CAMPOS_PATCH.contains(campo)) {
+                throw new RequisicaoInvalidaException("Campo não pode ser alterado: " + campo);
+            }
+            if (patch.get(campo).isNull() && !CAMPOS_PATCH_NULAVEIS.contains(campo)) {
+                throw new RequisicaoInvalidaException("O campo '" + campo + "' não pode ser nulo");
+            }
+        });
+
+        CompromissoRequestDTO dados;
+        try {
+            dados = objectMapper.treeToValue(patch, CompromissoRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RequisicaoInvalidaException("Valor inválido no corpo da requisição");
+        }
+
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (String campo : CAMPOS_PATCH) {
+            if (!patch.has(campo)) {
+                continue;
+            }
+            for (ConstraintViolation<CompromissoRequestDTO> violacao : validator.validateProperty(dados, campo)) {
+                throw new RequisicaoInvalidaException(campo + ": " + violacao.getMessage());
+            }
+            campos.put(campo, valorColuna(dados, campo));
+        }
+        return campos;
+    }
+
+    private CompromissoResponseDTO atualizarCampos(Long id, Map<String, Object> campos, String username,
+            Long versaoEsperada, VersaoSync versoes) {
+        campos.put("versaoAlteracao", versoes.getVersaoDados());
+        if (!gravarCampos(id, versoes.getId(), versaoEsperada, campos)) {
+            throw falhaDePropriedade(id, versoes.getId(), versaoEsperada);
+        }
+        CompromissoResponseDTO atualizado = compromissoRepository.buscarProjecao(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Compromisso não encontrado com ID: " + id));
+        atualizado.setUsername(username);
+        return atualizado;
+    }
+
+    /**
+     * Move o compromisso no Kanban para a coluna {@code status}, logo abaixo de {@code anteriorId}
+     * (ou no topo). A nova chave de ordem fica entre a do card anterior e a seguinte, lidas pelo
+     * índice (user_id, status, ordem), então o movimento é um único UPDATE da linha movida, com
+     * a mesma checagem de dono e If-Match de {@link #atualizarParcial}.
+     */
+    @Transactional
+    public CompromissoResponseDTO mover(Long id, MovimentoKanbanDTO movimento, String username, Long versaoEsperada) {
+        if (id.equals(movimento.getAnteriorId())) {
+            throw new RequisicaoInvalidaException("O compromisso não pode ser posicionado após ele mesmo");
+        }
+        VersaoSync versoes = incrementarVersao(username);
+        String status = movimento.getStatus().name();
+
+        String ordem = novaOrdem(id, versoes.getId(), status, movimento.getAnteriorId());
+        if (ordem == null || ordem.length() > Compromisso.TAMANHO_MAXIMO_ORDEM) {
+            // Vizinho sem chave ou espaço esgotado: renumera a coluna (caso raro) e tenta de novo.
+            // O card movido fica de fora para que a sua versão só mude com o UPDATE abaixo (If-Match)
+            rebalancearColuna(versoes.getId(), status, versoes.getVersaoDados(), id);
+            ordem = novaOrdem(id, versoes.getId(), status, movimento.getAnteriorId());
+        }
+
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("status", status);
+        campos.put("ordem", ordem);
+        campos.put("versaoAlteracao", versoes.getVersaoDados());
+        if (compromissoRepository.atualizarCampos(id, versoes.getId(), versaoEsperada, campos) == 0) {
+            throw falhaDePropriedade(id, versoes.getId(), versaoEsperada);
+        }
+        CompromissoResponseDTO movido = compromissoRepository.buscarProjecao(id)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Compromisso não encontrado com ID: " + id));
+        movido.setUsername(username);
+        return movido;
+    }
+
+    /**
+     * Exclui com um único DELETE que já filtra pelo dono (e pela versão, com If-Match).
+     * Excluir um id inexistente não é erro (exclusão idempotente), exceto com If-Match, que
+     * não pode ser satisfeito; um compromisso de outro usuário gera 403.
+     *
+     * A linha do usuário é travada antes do DELETE, na mesma ordem das demais escritas, mas a
+     * versão de dados só é incrementada se algo foi excluído: excluir de novo um id não muda o
+     * ETag, o feed iCalendar nem a sincronização.
+     *
+     * @return false se o compromisso já não existia
+     */
+    @Transactional
+    public boolean deletar(Long id, String username, Long versaoEsperada) {
+        VersaoSync travado = usuarioRepository.travarVersaoSync(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+        if (!excluir(id, travado.getId(), versaoEsperada)) {
+            return false;
+        }
+        usuarioRepository.incrementarVersaoDados(username, Instant.now());
+        calendarioService.invalidar(username);
+        // Travada desde a leitura, a linha do usuário não mudou: a nova versão é a lida + 1
+        registrarRemocao(id, username, travado.getVersaoDados() + 1);
+        return true;
+    }
 
-        if (!compromisso.getUsuario().getUsername().equals(username)) {
-            throw new AcessoNegadoException("Você não tem permissão para acessar este recurso.");
+    boolean deletar(Long id, String username, Long versaoEsperada, VersaoSync versoes) {
+        if (!excluir(id, versoes.getId(), versaoEsperada)) {
+            return false;
         }
-        return compromisso;
+        registrarRemocao(id, username, versoes.getVersaoDados());
+        return true;
     }
 
-    private void atualizarDados(Compromisso target, CompromissoRequestDTO source) {
-        target.setTitulo(source.getTitulo());
-        target.setDescricao(source.getDescricao());
-        target.setDataHora(source.getDataHora());
-        target.setValor(source.getValor() != null ? source.getValor().doubleValue() : 0.0);
-        target.setTipo(source.getTipo().name());
-        target.setStatus(source.getStatus().name());
-        target.setUrgente(source.isUrgente());
+    // false se o id não existe (sem If-Match); 403 ou 412 nos demais casos sem linha excluída
+    private boolean excluir(Long id, Long usuarioId, Long versaoEsperada) {
+        int removidos = versaoEsperada == null
+                ? compromissoRepository.deletarDoUsuario(id, usuarioId)
+                : compromissoRepository.deletarDoUsuarioNaVersao(id, usuarioId, versaoEsperada);
+        if (removidos > 0) {
+            return true;
+        }
+        RuntimeException falha = falhaDePropriedade(id, usuarioId, versaoEsperada);
+        if (!(falha instanceof RecursoNaoEncontradoException)) {
+            throw falha;
+        }
+        if (versaoEsperada != null) {
+            throw new PreCondicaoFalhouException("O compromisso não existe mais");
+        }
+        return false;
+    }
+
+    private void registrarRemocao(Long id, String username, long versaoDados) {
+        compromissoRemovidoRepository.save(new CompromissoRemovido(null, id, username, versaoDados, Instant.now()));
+    }
+
+    /**
+     * Descarta tombstones antigos (executa diariamente às 3h30). Antes disso avança a
+     * versão mínima de sincronização de cada usuário afetado, para que clientes que não
+     * sincronizam há mais tempo que a retenção recebam {@code reset} em vez de perder exclusões.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void limparRemovidos() {
+        Instant limite = Instant.now().minus(retencaoRemovidosDias, ChronoUnit.DAYS);
+        usuarioRepository.avancarVersaoMinimaSync(limite);
+        int removidos = compromissoRemovidoRepository.deleteRemovidosAntesDe(limite);
+        logger.info("Limpeza de tombstones de compromissos executada: {} removidos", removidos);
+    }
+
+    /**
+     * Rebalanceia as colunas do Kanban com compromissos ainda sem chave de ordem ou com chaves
+     * longas demais (executa diariamente às 4h). Cada coluna recebe chaves curtas e igualmente
+     * espaçadas na ordem atual, em uma transação própria sob a trava do usuário.
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void rebalancearOrdens() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int linhas = 0;
+        List<ColunaKanban> colunas = compromissoRepository.buscarColunasParaRebalancear(tamanhoRebalanceamentoOrdem);
+        for (ColunaKanban coluna : colunas) {
+            linhas += transacao.execute(status -> {
+                VersaoSync versoes = incrementarVersao(coluna.getUsername());
+                return rebalancearColuna(versoes.getId(), coluna.getStatus(), versoes.getVersaoDados(), null);
+            });
+        }
+        logger.info("Rebalanceamento da ordem do Kanban executado: {} colunas, {} compromissos", colunas.size(), linhas);
+    }
+
+    // Helper Methods
+
+    // Novos compromissos entram no fim da coluna do seu status. Chamado depois de incrementar a
+    // versão do usuário: com a linha do usuário travada, criações concorrentes não repetem chaves
+    void atribuirOrdem(Long usuarioId, List<Compromisso> novos) {
+        Map<String, List<Compromisso>> porStatus = new LinkedHashMap<>();
+        for (Compromisso compromisso : novos) {
+            porStatus.computeIfAbsent(compromisso.getStatus(), s -> new ArrayList<>()).add(compromisso);
+        }
+        porStatus.forEach((status, itens) -> {
+            String ultima = compromissoRepository.buscarUltimaOrdem(usuarioId, status).orElse(null);
+            List<String> ordens = RankUtils.between(ultima, null, itens.size());
+            for (int i = 0; i < itens.size(); i++) {
+                itens.get(i).setOrdem(ordens.get(i));
+            }
+        });
+    }
+
+    // UPDATE de PUT/PATCH. Se o status vem nos campos, a primeira tentativa exige que ele não
+    // mude: o caso comum continua sendo um único UPDATE, sem consultar a coluna. Sem linha
+    // afetada, o card muda de coluna (ou a checagem de dono/versão falhou) e só então a chave do
+    // fim da coluna nova é lida e gravada junto; false se nem assim a linha foi atualizada
+    private boolean gravarCampos(Long id, Long usuarioId, Long versaoEsperada, Map<String, Object> campos) {
+        String status = (String) campos.get("status");
+        if (status == null) {
+            return compromissoRepository.atualizarCampos(id, usuarioId, versaoEsperada, campos) > 0;
+        }
+        if (compromissoRepository.atualizarCampos(id, usuarioId, versaoEsperada, campos, status) > 0) {
+            return true;
+        }
+        Map<String, Object> comOrdem = new LinkedHashMap<>(campos);
+        comOrdem.put("ordem", ordemNoFimDaColuna(usuarioId, status));
+        return compromissoRepository.atualizarCampos(id, usuarioId, versaoEsperada, comOrdem) > 0;
+    }
+
+    // Chave para um card que muda de coluna por PUT/PATCH: entra no fim da coluna nova. Como em
+    // atribuirOrdem, a trava do usuário impede que outra alteração concorrente leia a mesma última chave
+    private String ordemNoFimDaColuna(Long usuarioId, String status) {
+        return RankUtils.between(compromissoRepository.buscarUltimaOrdem(usuarioId, status).orElse(null), null);
     }
 
-    private CompromissoResponseDTO toDTO(Compromisso entity) {
+    // Chave entre o card anterior e o seguinte da coluna; null se o anterior ainda não tem chave
+    private String novaOrdem(Long id, Long usuarioId, String status, Long anteriorId) {
+        if (anteriorId == null) {
+            return RankUtils.between(null, compromissoRepository.buscarPrimeiraOrdem(usuarioId, status, id).orElse(null));
+        }
+        String anterior = compromissoRepository.buscarOrdemNaColuna(anteriorId, usuarioId, status)
+                .orElseThrow(() -> new RequisicaoInvalidaException(
+                        "O compromisso " + anteriorId + " não está na coluna " + status));
+        if (anterior.isEmpty()) {
+            return null;
+        }
+        String seguinte = compromissoRepository.buscarOrdemSeguinte(usuarioId, status, anterior, id).orElse(null);
+        return RankUtils.between(anterior, seguinte);
+    }
+
+    // Renumera a coluna com chaves novas na ordem exibida pelo Kanban (um UPDATE por linha)
+    private int rebalancearColuna(Long usuarioId, String status, long versaoAlteracao, Long ignorarId) {
+        List<Long> ids = compromissoRepository.buscarIdsDaColuna(usuarioId, status, ignorarId);
+        List<String> ordens = RankUtils.between(null, null, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            compromissoRepository.atualizarOrdem(ids.get(i), ordens.get(i), versaoAlteracao);
+        }
+        return ids.size();
+    }
+
+    // O UPDATE trava a linha do usuário até o commit: alterações concorrentes do mesmo usuário
+    // ficam serializadas e cada versão só fica visível depois das anteriores
+    private long proximaVersao(String username) {
+        return incrementarVersao(username).getVersaoDados();
+    }
+
+    // Também usado por ImportacaoService, para cada bloco importado
+    VersaoSync incrementarVersao(String username) {
+        if (usuarioRepository.incrementarVersaoDados(username, Instant.now()) == 0) {
+            throw new RecursoNaoEncontradoException("Usuário não encontrado: " + username);
+        }
+        calendarioService.invalidar(username);
+        return usuarioRepository.buscarVersaoSync(username)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username));
+    }
+
+    void validarFiltro(CompromissoFiltroDTO filtro) {
+        if (filtro.getFrom() != null && filtro.getTo() != null && !filtro.getTo().isAfter(filtro.getFrom())) {
+            throw new RequisicaoInvalidaException("O fim do período deve ser posterior ao início");
+        }
+        if (filtro.getValorMin() != null && filtro.getValorMax() != null
+                && filtro.getValorMin().compareTo(filtro.getValorMax()) > 0) {
+            throw new RequisicaoInvalidaException("O valor mínimo não pode ser maior que o máximo");
+        }
+    }
+
+    private int resolverTamanhoPagina(Integer limite) {
+        if (limite == null) {
+            return tamanhoPaginaPadrao;
+        }
+        if (limite < 1) {
+            throw new RequisicaoInvalidaException("O limite deve ser maior que zero");
+        }
+        return Math.min(limite, tamanhoPaginaMaximo);
+    }
+
+    private KanbanColunaDTO buscarColuna(String username, CompromissoStatus status, String cursor, int tamanho) {
+        PageRequest pagina = PageRequest.of(0, tamanho + 1);
+        List<CompromissoResponseDTO> linhas;
+        if (cursor == null || cursor.isBlank()) {
+            linhas = compromissoRepository.buscarPrimeiraPaginaPorStatus(username, status.name(), pagina);
+        } else {
+            CursorUtils.Posicao posicao = decodificarCursorKanban(cursor);
+            int separador = posicao.chave().indexOf(SEPARADOR_CURSOR_KANBAN);
+            String ordem = posicao.chave().substring(0, separador);
+            LocalDateTime dataHora = LocalDateTime.parse(posicao.chave().substring(separador + 1));
+            linhas = ordem.isEmpty()
+                    ? compromissoRepository.buscarPaginaSemOrdemPorStatusApos(
+                            username, status.name(), dataHora, posicao.id(), pagina)
+                    : compromissoRepository.buscarPaginaPorStatusApos(
+                            username, status.name(), ordem, dataHora, posicao.id(), pagina);
+        }
+        List<CompromissoResponseDTO> itens = comUsername(cortarPagina(linhas, tamanho), username);
+        return new KanbanColunaDTO(status, null, itens, proximoCursor(linhas, tamanho, CompromissoService::chaveKanban));
+    }
+
+    private List<CompromissoResponseDTO> cortarPagina(List<CompromissoResponseDTO> linhas, int tamanho) {
+        return linhas.size() > tamanho ? linhas.subList(0, tamanho) : linhas;
+    }
+
+    // As consultas buscam tamanho + 1 linhas: a linha extra só indica que existe próxima página
+    private String proximoCursor(List<CompromissoResponseDTO> linhas, int tamanho,
+                                 Function<CompromissoResponseDTO, String> chave) {
+        if (linhas.size() <= tamanho) {
+            return null;
+        }
+        CompromissoResponseDTO ultimo = linhas.get(tamanho - 1);
+        return CursorUtils.encode(chave.apply(ultimo), ultimo.getId());
+    }
+
+    // Chave do cursor do Kanban: "<ordem>|<dataHora>", com ordem vazia nos compromissos sem chave
+    private static String chaveKanban(CompromissoResponseDTO c) {
+        return (c.getOrdem() != null ? c.getOrdem() : "") + SEPARADOR_CURSOR_KANBAN + c.getDataHora();
+    }
+
+    private List<CompromissoResponseDTO> comUsername(List<CompromissoResponseDTO> itens, String username) {
+        for (CompromissoResponseDTO item : itens) {
+            item.setUsername(username);
+        }
+        return itens;
+    }
+
+    private long valorOuZero(Long valor) {
+        return valor != null ? valor : 0L;
+    }
+
+    private int resolverTamanhoColuna(Integer limite) {
+        return limite != null ? resolverTamanhoPagina(limite) : limiteColunaKanban;
+    }
+
+    private CursorUtils.Posicao decodificarCursor(String cursor) {
+        try {
+            CursorUtils.Posicao posicao = CursorUtils.decode(cursor);
+            LocalDateTime.parse(posicao.chave());
+            return posicao;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RequisicaoInvalidaException("Cursor inválido");
+        }
+    }
+
+    private CursorUtils.Posicao decodificarCursorKanban(String cursor) {
+        try {
+            CursorUtils.Posicao posicao = CursorUtils.decode(cursor);
+            int separador = posicao.chave().indexOf(SEPARADOR_CURSOR_KANBAN);
+            String ordem = posicao.chave().substring(0, Math.max(separador, 0));
+            if (separador < 0 || (!ordem.isEmpty() && !RankUtils.isValid(ordem))) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime.parse(posicao.chave().substring(separador + 1));
+            return posicao;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RequisicaoInvalidaException("Cursor inválido");
+        }
+    }
+
+    // Só chamado quando o UPDATE/DELETE não afetou nenhuma linha
+    private RuntimeException falhaDePropriedade(Long id, Long usuarioId, Long versaoEsperada) {
+        if (versaoEsperada != null && compromissoRepository.existsByIdAndUsuarioId(id, usuarioId)) {
+            return new PreCondicaoFalhouException("O compromisso foi alterado por outra requisição (If-Match não confere)");
+        }
+        if (compromissoRepository.existsById(id)) {
+            return new AcessoNegadoException("Você não tem permissão para acessar este recurso.");
+        }
+        return new RecursoNaoEncontradoException("Compromisso não encontrado com ID: " + id);
+    }
+
+    private Map<String, Object> camposAtualizaveis(Compromisso dados) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("titulo", dados.getTitulo());
+        campos.put("descricao", dados.getDescricao());
+        campos.put("dataHora", dados.getDataHora());
+        campos.put("valor", dados.getValor());
+        campos.put("tipo", dados.getTipo());
+        campos.put("status", dados.getStatus());
+        campos.put("urgente", dados.isUrgente());
+        return campos;
+    }
+
+    // Valor de um campo do DTO no formato da coluna (mesmas conversões de toEntity)
+    private Object valorColuna(CompromissoRequestDTO dados, String campo) {
+        return switch (campo) {
+            case "titulo" -> dados.getTitulo();
+            case "descricao" -> dados.getDescricao();
+            case "dataHora" -> dados.getDataHora();
+            case "valor" -> dados.getValor() != null ? dados.getValor().doubleValue() : 0.0;
+            case "tipo" -> dados.getTipo().name();
+            case "status" -> dados.getStatus().name();
+            case "urgente" -> dados.isUrgente();
+            default -> throw new IllegalArgumentException(campo);
+        };
+    }
+
+    // Resposta de um PUT agrupado que ainda não foi gravado (CoalescenciaService):
+    // o estado enviado, com a versão que o compromisso terá depois da gravação
+    CompromissoResponseDTO previa(Long id, CompromissoRequestDTO dto, String username, long versao) {
+        Compromisso dados = toEntity(dto);
+        dados.setId(id);
+        dados.setVersao(versao);
+        return toDTO(dados, username);
+    }
+
+    private CompromissoResponseDTO toDTO(Compromisso entity, String username) {
         CompromissoResponseDTO dto = new CompromissoResponseDTO();
         dto.setId(entity.getId());
         dto.setTitulo(entity.getTitulo());
         dto.setDescricao(entity.getDescricao());
         dto.setDataHora(entity.getDataHora());
         dto.setValor(BigDecimal.valueOf(entity.getValor()));
-        
-        try {
-            dto.setTipo(CompromissoTipo.valueOf(entity.getTipo()));
-        } catch (IllegalArgumentException e) {
-            dto.setTipo(CompromissoTipo.OUTROS); // Fallback
-        }
-
-        try {
-            dto.setStatus(CompromissoStatus.valueOf(entity.getStatus()));
-        } catch (IllegalArgumentException e) {
-            dto.setStatus(CompromissoStatus.PENDENTE); // Fallback
-        }
+        dto.setTipo(CompromissoTipo.fromNome(entity.getTipo())); // Fallback: OUTROS
+        dto.setStatus(CompromissoStatus.fromNome(entity.getStatus())); // Fallback: PENDENTE
 
         dto.setUrgente(entity.isUrgente());
-        dto.setUsername(entity.getUsuario().getUsername());
+        dto.setVersao(entity.getVersao());
+        dto.setOrdem(entity.getOrdem());
+        dto.setUsername(username);
         return dto;
     }
 
-    private Compromisso toEntity(CompromissoRequestDTO dto) {
+    Compromisso toEntity(CompromissoRequestDTO dto) {
         Compromisso entity = new Compromisso();
         entity.setTitulo(dto.getTitulo());
         entity.setDescricao(dto.getDescricao());
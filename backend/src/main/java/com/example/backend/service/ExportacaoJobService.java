@@ -0,0 +1,321 @@
+package com.example.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.dto.ExportacaoJobDTO;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.exception.ConflitoException;
+import com.example.backend.exception.RecursoNaoEncontradoException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Exportações assíncronas: POST /api/compromissos/export/jobs cria um job e devolve na hora;
+ * um executor com threads e fila limitadas grava o CSV de {@link ExportacaoService} em um
+ * arquivo no disco local, e o arquivo é baixado depois com suporte a Range (retomável).
+ * Nenhuma thread do Tomcat nem conexão do banco fica presa durante o download.
+ *
+ * Os arquivos são removidos {@code ttl-minutos} depois da conclusão ou do último download, o
+ * que vier depois, e nunca enquanto um download está em andamento. A soma dos arquivos
+ * (inclusive os em gravação) não passa de {@code cota}: um job que a excederia falha. Os jobs
+ * ficam em memória, então valem por instância; ao iniciar, arquivos de execuções anteriores
+ * são apagados.
+ */
+@Service
+public class ExportacaoJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacaoJobService.class);
+
+    private static final String EXTENSAO = ".csv";
+    private static final int TAMANHO_BUFFER_ARQUIVO = 64 * 1024;
+
+    private enum Situacao { PENDENTE, EM_ANDAMENTO, CONCLUIDO, FALHOU }
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Value("${compromisso.exportacao.jobs.diretorio:${java.io.tmpdir}/compromissos-exportacao}")
+    private Path diretorio;
+
+    @Value("${compromisso.exportacao.jobs.threads:2}")
+    private int threads;
+
+    @Value("${compromisso.exportacao.jobs.fila:20}")
+    private int fila;
+
+    @Value("${compromisso.exportacao.jobs.ttl-minutos:60}")
+    private long ttlMinutos;
+
+    @Value("${compromisso.exportacao.jobs.cota:1GB}")
+    private DataSize cota;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    // Bytes em disco: arquivos concluídos mais o já gravado pelos jobs em andamento
+    private final AtomicLong usoDisco = new AtomicLong();
+
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * Arquivo de uma exportação concluída, imutável até expirar.
+     */
+    public record Arquivo(String id, Path caminho, long tamanho, String etag, String nome) {
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        Files.createDirectories(diretorio);
+        // Só os arquivos com o nome gerado aqui, caso o diretório seja compartilhado
+        try (DirectoryStream<Path> antigos = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+            for (Path antigo : antigos) {
+                if (idValido(nomeSemExtensao(antigo))) {
+                    Files.deleteIfExists(antigo);
+                }
+            }
+        }
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("exportacao-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Cria um job de exportação com os filtros de GET /api/compromissos/export.
+     *
+     * @throws CapacidadeEsgotadaException se a fila do executor estiver cheia ou a cota de disco esgotada
+     */
+    public ExportacaoJobDTO criar(String username, CompromissoFiltroDTO filtro) {
+        if (filtro != null && !filtro.isVazio()) {
+            compromissoService.validarFiltro(filtro);
+        }
+        if (usoDisco.get() >= cota.toBytes()) {
+            throw new CapacidadeEsgotadaException("Cota de disco das exportações esgotada; tente novamente mais tarde");
+        }
+        Job job = new Job(UUID.randomUUID().toString(), username);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> executar(job, filtro));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new CapacidadeEsgotadaException("Muitas exportações em andamento; tente novamente mais tarde");
+        }
+        return toDTO(job);
+    }
+
+    public ExportacaoJobDTO buscar(String id, String username) {
+        return toDTO(doUsuario(id, username));
+    }
+
+    /**
+     * Arquivo para download. O job fica em uso, sem expirar, até {@link #liberar(Arquivo)}, e o
+     * prazo de expiração recomeça a contar do acesso: com o sendfile do Tomcat o arquivo ainda é
+     * lido depois que o controller retorna.
+     *
+     * @throws ConflitoException se a exportação ainda não terminou ou falhou
+     */
+    public Arquivo arquivo(String id, String username) {
+        Job job = doUsuario(id, username);
+        synchronized (job) {
+            if (job.expirado) {
+                throw new RecursoNaoEncontradoException("Exportação não encontrada: " + id);
+            }
+            if (job.situacao != Situacao.CONCLUIDO) {
+                throw new ConflitoException("A exportação não está concluída (status " + job.situacao + ")");
+            }
+            job.downloads++;
+            job.acessadoEm = Instant.now();
+        }
+        return new Arquivo(job.id, job.caminho, job.tamanho, "\"" + job.id + "\"",
+                "compromissos-" + job.username + EXTENSAO);
+    }
+
+    /**
+     * Encerra o uso do arquivo obtido por {@link #arquivo(String, String)}.
+     */
+    public void liberar(Arquivo arquivo) {
+        Job job = jobs.get(arquivo.id());
+        if (job != null) {
+            synchronized (job) {
+                job.downloads--;
+            }
+        }
+    }
+
+    /**
+     * Remove os jobs (e arquivos) concluídos ou com falha há mais de {@code ttl-minutos}, exceto
+     * os que estão sendo baixados.
+     */
+    @Scheduled(fixedDelayString = "${compromisso.exportacao.jobs.limpeza-ms:60000}")
+    public void limparExpirados() {
+        Instant agora = Instant.now();
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                Instant expiraEm = expiraEm(job);
+                if (expiraEm == null || expiraEm.isAfter(agora) || job.downloads > 0) {
+                    return false;
+                }
+                job.expirado = true;
+            }
+            apagar(job);
+            return true;
+        });
+    }
+
+    private void executar(Job job, CompromissoFiltroDTO filtro) {
+        job.situacao = Situacao.EM_ANDAMENTO;
+        job.caminho = diretorio.resolve(job.id + EXTENSAO);
+        try (OutputStream out = new ContadorCota(job,
+                new BufferedOutputStream(Files.newOutputStream(job.caminho), TAMANHO_BUFFER_ARQUIVO))) {
+            exportacaoService.escreverCsv(job.username, filtro, out);
+        } catch (Exception e) {
+            logger.warn("Exportação {} falhou: {}", job.id, e.getMessage());
+            apagar(job);
+            job.erro = e instanceof IOException ? e.getMessage() : "Falha ao gerar a exportação";
+            job.concluidoEm = Instant.now();
+            job.situacao = Situacao.FALHOU;
+            return;
+        }
+        job.tamanho = job.bytesEscritos.get();
+        job.concluidoEm = Instant.now();
+        job.situacao = Situacao.CONCLUIDO;
+    }
+
+    private void apagar(Job job) {
+        if (job.caminho == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.caminho);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar a exportação {}: {}", job.id, e.getMessage());
+        }
+        usoDisco.addAndGet(-job.bytesEscritos.get());
+        job.bytesEscritos.set(0);
+    }
+
+    // Job de outro usuário responde como inexistente, sem revelar que o id existe
+    private Job doUsuario(String id, String username) {
+        Job job = jobs.get(id);
+        if (job == null || !job.username.equals(username)) {
+            throw new RecursoNaoEncontradoException("Exportação não encontrada: " + id);
+        }
+        return job;
+    }
+
+    private Instant expiraEm(Job job) {
+        Instant concluidoEm = job.concluidoEm;
+        if (concluidoEm == null) {
+            return null;
+        }
+        Instant acessadoEm = job.acessadoEm;
+        Instant base = acessadoEm != null && acessadoEm.isAfter(concluidoEm) ? acessadoEm : concluidoEm;
+        return base.plus(Duration.ofMinutes(ttlMinutos));
+    }
+
+    private ExportacaoJobDTO toDTO(Job job) {
+        boolean concluido = job.situacao == Situacao.CONCLUIDO;
+        return new ExportacaoJobDTO(job.id, job.situacao.name(), job.bytesEscritos.get(),
+                concluido ? job.tamanho : null, job.criadoEm, job.concluidoEm, expiraEm(job), job.erro,
+                concluido ? "/api/compromissos/export/jobs/" + job.id + "/arquivo" : null);
+    }
+
+    private static boolean idValido(String id) {
+        try {
+            return UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String nomeSemExtensao(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return nome.substring(0, nome.length() - EXTENSAO.length());
+    }
+
+    private static class Job {
+        private final String id;
+        private final String username;
+        private final Instant criadoEm = Instant.now();
+        private final AtomicLong bytesEscritos = new AtomicLong();
+        private volatile Situacao situacao = Situacao.PENDENTE;
+        private volatile Path caminho;
+        private volatile long tamanho;
+        private volatile Instant concluidoEm;
+        private volatile String erro;
+        private volatile Instant acessadoEm;
+        // Protegidos pelo monitor do job
+        private int downloads;
+        private boolean expirado;
+
+        Job(String id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    // Conta o progresso do job e reserva cada escrita na cota antes de gravá-la
+    private class ContadorCota extends FilterOutputStream {
+
+        private final Job job;
+
+        ContadorCota(Job job, OutputStream out) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            reservar(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            reservar(len);
+            out.write(b, off, len);
+        }
+
+        private void reservar(int bytes) throws IOException {
+            if (usoDisco.addAndGet(bytes) > cota.toBytes()) {
+                usoDisco.addAndGet(-bytes);
+                throw new IOException("Cota de disco das exportações excedida");
+            }
+            job.bytesEscritos.addAndGet(bytes);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.config.DatabasePlatform;
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.exception.RecursoNaoEncontradoException;
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.CompromissoSpecifications;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.util.CsvWriter;
+
+/**
+ * Exportação de compromissos em CSV (GET /api/compromissos/export), no layout lido de volta
+ * pela importação. A resposta é escrita em streaming, com heap constante qualquer que seja o
+ * tamanho da conta.
+ *
+ * No PostgreSQL o CSV é gerado pelo próprio banco com {@code COPY (SELECT ...) TO STDOUT} e os
+ * bytes vão direto do driver para a resposta, sem mapear linhas para objetos Java; a formatação
+ * dos campos e a proteção contra CSV Injection de {@link CsvWriter} são feitas em expressões SQL.
+ * Nos demais bancos as linhas vêm do cursor JPA e são codificadas pelo {@link CsvWriter}.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final List<String> COLUNAS_CSV =
+            List.of("id", "titulo", "dataHora", "tipo", "status", "valor", "urgente", "descricao");
+    private static final int TAMANHO_BUFFER_CSV = 16 * 1024;
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Value("${compromisso.exportacao.copy-postgres:true}")
+    private boolean copyPostgres;
+
+    /**
+     * Escreve em {@code out} o CSV dos compromissos do usuário que satisfazem {@code filtro}
+     * (vazio ou null exporta todos), ordenados por (dataHora, id). Os filtros viram predicados SQL.
+     */
+    public void escreverCsv(String username, CompromissoFiltroDTO filtro, OutputStream out) throws IOException {
+        boolean filtrado = filtro != null && !filtro.isVazio();
+        if (filtrado) {
+            compromissoService.validarFiltro(filtro);
+        }
+        CsvWriter csv = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TAMANHO_BUFFER_CSV);
+        if (copyPostgres && databasePlatform.isPostgres()) {
+            Long usuarioId = usuarioRepository.buscarVersaoSync(username)
+                    .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário não encontrado: " + username))
+                    .getId();
+            escreverCabecalho(csv);
+            csv.flush();
+            copiar(consultaCopy(usuarioId, filtrado ? filtro : null), out);
+        } else {
+            escreverCsvJpa(username, filtrado ? filtro : null, csv);
+        }
+    }
+
+    // Cursor JDBC com fetch size: o contexto de persistência não cresce, pois a projeção não gera entidades
+    private void escreverCsvJpa(String username, CompromissoFiltroDTO filtro, CsvWriter csv) throws IOException {
+        Specification<Compromisso> spec = CompromissoSpecifications.doUsuario(username);
+        if (filtro != null) {
+            spec = CompromissoSpecifications.aplicarFiltro(spec, filtro);
+        }
+        Specification<Compromisso> consulta = spec;
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        try {
+            transacao.executeWithoutResult(status -> {
+                try (Stream<CompromissoResponseDTO> linhas = compromissoRepository.streamFiltrado(consulta)) {
+                    escreverCabecalho(csv);
+                    Iterator<CompromissoResponseDTO> it = linhas.iterator();
+                    while (it.hasNext()) {
+                        CompromissoResponseDTO c = it.next();
+                        csv.field(c.getId())
+                                .field(c.getTitulo())
+                                .field(c.getDataHora())
+                                .field(c.getTipo())
+                                .field(c.getStatus())
+                                .field(c.getValor())
+                                .field(c.isUrgente())
+                                .field(c.getDescricao())
+                                .endRow();
+                    }
+                    csv.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void copiar(String consulta, OutputStream out) throws IOException {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Long>) conexao -> {
+                try {
+                    return conexao.unwrap(PGConnection.class).getCopyAPI()
+                            .copyOut("COPY (" + consulta + ") TO STDOUT (FORMAT csv)", out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private static void escreverCabecalho(CsvWriter csv) throws IOException {
+        for (String coluna : COLUNAS_CSV) {
+            csv.field(coluna);
+        }
+        csv.endRow();
+    }
+
+    /**
+     * SELECT do COPY, com as mesmas colunas, textos e ordem do caminho JPA. O COPY não aceita
+     * parâmetros, então os filtros entram como literais; todos vêm de valores já convertidos
+     * (ids, enums, datas, números e booleanos), nunca de texto livre do cliente.
+     *
+     * No formato csv o COPY escreve NULL como campo vazio e põe entre aspas, dobrando as aspas
+     * internas, os campos com vírgula, aspas ou quebra de linha, como {@link CsvWriter}; o texto
+     * vazio vira NULL para não sair como {@code ""}. O valor segue o {@code BigDecimal} do DTO
+     * (ex.: {@code 150.0}) entre 0,001 e 10^7; fora dessa faixa sai na notação curta do
+     * PostgreSQL (ex.: {@code 1e+07}), que a importação também aceita.
+     */
+    static String consultaCopy(Long usuarioId, CompromissoFiltroDTO filtro) {
+        StringBuilder sql = new StringBuilder("SELECT c.id, ")
+                .append(textoCsv("c.titulo")).append(", ")
+                .append("to_char(c.data_hora, 'YYYY-MM-DD\"T\"HH24:MI'), ")
+                .append("CASE WHEN c.tipo IN (").append(nomes(Arrays.asList(CompromissoTipo.values())))
+                .append(") THEN c.tipo ELSE '").append(CompromissoTipo.OUTROS.name()).append("' END, ")
+                .append("CASE WHEN c.status IN (").append(nomes(Arrays.asList(CompromissoStatus.values())))
+                .append(") THEN c.status ELSE '").append(CompromissoStatus.PENDENTE.name()).append("' END, ")
+                .append("CASE WHEN c.valor = 0 THEN '0.0' ")
+                .append("WHEN abs(c.valor) >= 0.001 AND abs(c.valor) < 10000000 AND strpos(c.valor::text, '.') = 0 ")
+                .append("THEN c.valor::text || '.0' ELSE c.valor::text END, ")
+                .append("CASE WHEN c.urgente THEN 'true' ELSE 'false' END, ")
+                .append(textoCsv("c.descricao"))
+                .append(" FROM compromisso c WHERE c.user_id = ").append(usuarioId.longValue());
+
+        if (filtro != null) {
+            if (filtro.getTipo() != null && !filtro.getTipo().isEmpty()) {
+                sql.append(" AND c.tipo IN (").append(nomes(filtro.getTipo())).append(')');
+            }
+            if (filtro.getStatus() != null && !filtro.getStatus().isEmpty()) {
+                sql.append(" AND c.status IN (").append(nomes(filtro.getStatus())).append(')');
+            }
+            if (filtro.getUrgente() != null) {
+                // Nulo conta como não urgente, como em CompromissoSpecifications.urgente
+                sql.append(filtro.getUrgente() ? " AND c.urgente" : " AND c.urgente IS NOT TRUE");
+            }
+            if (filtro.getFrom() != null) {
+                sql.append(" AND c.data_hora >= TIMESTAMP '").append(filtro.getFrom()).append('\'');
+            }
+            if (filtro.getTo() != null) {
+                sql.append(" AND c.data_hora < TIMESTAMP '").append(filtro.getTo()).append('\'');
+            }
+            if (filtro.getValorMin() != null) {
+                sql.append(" AND c.valor >= ").append(filtro.getValorMin().toPlainString());
+            }
+            if (filtro.getValorMax() != null) {
+                sql.append(" AND c.valor <= ").append(filtro.getValorMax().toPlainString());
+            }
+        }
+        return sql.append(" ORDER BY c.data_hora, c.id").toString();
+    }
+
+    // Proteção contra CSV Injection de CsvWriter: aspa simples antes de =, +, - ou @
+    private static String textoCsv(String coluna) {
+        return "CASE WHEN left(" + coluna + ", 1) IN ('=', '+', '-', '@') THEN '''' || " + coluna
+                + " ELSE NULLIF(" + coluna + ", '') END";
+    }
+
+    private static String nomes(Collection<? extends Enum<?>> valores) {
+        return valores.stream().map(v -> "'" + v.name() + "'").collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.entity.ChaveIdempotencia;
+import com.example.backend.exception.RequisicaoInvalidaException;
+import com.example.backend.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Idempotency-Key de POST /api/compromissos: repetir uma chave (por exemplo o retry do
+ * interceptor do axios depois de renovar o token) devolve a resposta original em vez de
+ * criar outro compromisso.
+ *
+ * As chaves ficam em um cache em memória limitado, indexado por (usuário, chave) em um
+ * {@link LinkedHashMap} em ordem de acesso, com a tabela {@code chave_idempotencia} como fonte
+ * de verdade. A trava do mapa só cobre as operações nele: requisições simultâneas com a mesma
+ * chave esperam a primeira fora dela, então chaves diferentes não esperam uma pela outra.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    /**
+     * Resposta a devolver ao cliente.
+     *
+     * @param resposta O compromisso criado pela requisição original
+     * @param repetida true se a chave já tinha sido usada (nada foi criado agora)
+     */
+    public record Resultado(CompromissoResponseDTO resposta, boolean repetida) {
+    }
+
+    private record Registro(String hashRequisicao, CompromissoResponseDTO resposta, Instant criadaEm, boolean criadoAgora) {
+    }
+
+    // Futuro por chave: concluído com o registro, ou ainda em andamento na primeira requisição.
+    // A ordem do mapa é a de acesso, usada para descartar as chaves menos usadas; todo acesso
+    // é feito com o monitor do próprio mapa
+    private final Map<String, CompletableFuture<Registro>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${compromisso.idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+
+    @Value("${compromisso.idempotencia.cache-maximo:10000}")
+    private int cacheMaximo;
+
+    /**
+     * Executa {@code criar} uma única vez por (usuário, chave) dentro do TTL. A criação e o
+     * registro da chave são gravados na mesma transação.
+     *
+     * @throws RequisicaoInvalidaException se a chave for inválida ou já tiver sido usada com outro corpo
+     */
+    public Resultado executar(String username, String chave, CompromissoRequestDTO requisicao,
+                              Supplier<CompromissoResponseDTO> criar) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new RequisicaoInvalidaException("Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        String hash = hash(requisicao);
+        String chaveCache = username + '\n' + chave;
+
+        while (true) {
+            CompletableFuture<Registro> novo = new CompletableFuture<>();
+            CompletableFuture<Registro> existente;
+            synchronized (cache) {
+                existente = cache.putIfAbsent(chaveCache, novo);
+                if (existente == null) {
+                    limitarCache();
+                }
+            }
+            if (existente == null) {
+                Registro registro = executarPrimeira(username, chave, hash, criar, chaveCache, novo);
+                return registro.criadoAgora()
+                        ? new Resultado(registro.resposta(), false)
+                        : repetir(registro, hash);
+            }
+
+            Registro registro;
+            try {
+                registro = existente.join();
+            } catch (CompletionException | CancellationException e) {
+                // A requisição original falhou e saiu do cache; esta tenta de novo
+                continue;
+            }
+            if (expirado(registro.criadaEm())) {
+                remover(chaveCache, existente);
+                continue;
+            }
+            return repetir(registro, hash);
+        }
+    }
+
+    /**
+     * Descarta chaves vencidas (executa diariamente às 3h45).
+     */
+    @Scheduled(cron = "0 45 3 * * *")
+    @Transactional
+    public void limparExpiradas() {
+        Instant limite = limiteValidade();
+        synchronized (cache) {
+            cache.values().removeIf(f -> f.isDone() && !f.isCompletedExceptionally() && f.join().criadaEm().isBefore(limite));
+        }
+        int removidas = chaveIdempotenciaRepository.deleteCriadasAntesDe(limite);
+        logger.info("Limpeza de chaves de idempotência executada: {} removidas", removidas);
+    }
+
+    private Registro executarPrimeira(String username, String chave, String hash,
+                                      Supplier<CompromissoResponseDTO> criar,
+                                      String chaveCache, CompletableFuture<Registro> novo) {
+        try {
+            Registro registro;
+            try {
+                registro = new TransactionTemplate(transactionManager)
+                        .execute(status -> buscarOuCriar(username, chave, hash, criar));
+            } catch (DataIntegrityViolationException e) {
+                // Outra instância gravou a mesma chave antes: esta transação (e o compromisso) foi
+                // desfeita e a resposta dela é a que vale
+                registro = chaveIdempotenciaRepository.findByUsernameAndChave(username, chave)
+                        .map(this::paraRegistro)
+                        .orElseThrow(() -> e);
+            }
+            novo.complete(registro);
+            return registro;
+        } catch (RuntimeException e) {
+            remover(chaveCache, novo);
+            novo.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Registro buscarOuCriar(String username, String chave, String hash, Supplier<CompromissoResponseDTO> criar) {
+        Optional<ChaveIdempotencia> salva = chaveIdempotenciaRepository.findByUsernameAndChave(username, chave);
+        if (salva.isPresent()) {
+            if (!expirado(salva.get().getCriadaEm())) {
+                return paraRegistro(salva.get());
+            }
+            // Chave vencida ainda não limpa: libera para reutilização
+            chaveIdempotenciaRepository.delete(salva.get());
+            chaveIdempotenciaRepository.flush();
+        }
+
+        CompromissoResponseDTO resposta = criar.get();
+        Instant agora = Instant.now();
+        chaveIdempotenciaRepository.saveAndFlush(
+                new ChaveIdempotencia(null, username, chave, hash, serializar(resposta), agora));
+        return new Registro(hash, resposta, agora, true);
+    }
+
+    private Resultado repetir(Registro registro, String hash) {
+        if (!registro.hashRequisicao().equals(hash)) {
+            throw new RequisicaoInvalidaException("Idempotency-Key já usada com outro conteúdo");
+        }
+        return new Resultado(registro.resposta(), true);
+    }
+
+    private void remover(String chaveCache, CompletableFuture<Registro> futuro) {
+        synchronized (cache) {
+            cache.remove(chaveCache, futuro);
+        }
+    }
+
+    // Chamado com o monitor do cache. Descarta as chaves menos usadas já concluídas (a tabela
+    // continua respondendo por elas); as em andamento ficam, pois há requisições esperando
+    private void limitarCache() {
+        Iterator<CompletableFuture<Registro>> antigas = cache.values().iterator();
+        int excedentes = cache.size() - cacheMaximo;
+        while (excedentes > 0 && antigas.hasNext()) {
+            if (antigas.next().isDone()) {
+                antigas.remove();
+                excedentes--;
+            }
+        }
+    }
+
+    private Registro paraRegistro(ChaveIdempotencia salva) {
+        try {
+            CompromissoResponseDTO resposta = objectMapper.readValue(salva.getResposta(), CompromissoResponseDTO.class);
+            return new Registro(salva.getHashRequisicao(), resposta, salva.getCriadaEm(), false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta armazenada inválida para a chave " + salva.getId(), e);
+        }
+    }
+
+    private String serializar(CompromissoResponseDTO resposta) {
+        try {
+            return objectMapper.writeValueAsString(resposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(CompromissoRequestDTO requisicao) {
+        try {
+            byte[] corpo = objectMapper.writeValueAsString(requisicao).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean expirado(Instant criadaEm) {
+        return criadaEm.isBefore(limiteValidade());
+    }
+
+    private Instant limiteValidade() {
+        return Instant.now().minus(ttlHoras, ChronoUnit.HOURS);
+    }
+}
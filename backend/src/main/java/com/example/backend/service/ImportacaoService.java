@@ -0,0 +1,326 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.backend.config.DatabasePlatform;
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.ErroImportacaoDTO;
+import com.example.backend.dto.ResultadoImportacaoDTO;
+import com.example.backend.dto.VersaoSync;
+import com.example.backend.exception.RequisicaoInvalidaException;
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.util.CsvReader;
+import com.example.backend.util.CsvUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.FutureOrPresent;
+
+/**
+ * Importação de compromissos em CSV, no mesmo layout da exportação. O arquivo é lido em
+ * streaming: só o registro atual e o bloco em gravação ficam em memória, qualquer que seja
+ * o tamanho do arquivo.
+ *
+ * Cada bloco de {@code compromisso.importacao.tamanho-transacao} linhas válidas é gravado em
+ * uma transação própria, com uma versão de sincronização por bloco. No PostgreSQL o bloco vai
+ * por {@code COPY FROM STDIN} para uma tabela temporária e entra em {@code compromisso} com um
+ * único {@code INSERT ... SELECT}; nos demais bancos, pelos INSERTs em lote do Hibernate.
+ */
+@Service
+public class ImportacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final int TAMANHO_MAXIMO_REGISTRO = 10_000;
+    private static final int MAXIMO_ERROS_DETALHADOS = 100;
+    private static final List<String> COLUNAS_OBRIGATORIAS = List.of("titulo", "dataHora", "tipo");
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${compromisso.importacao.tamanho-transacao:1000}")
+    private int tamanhoTransacao;
+
+    @Value("${compromisso.importacao.copy-postgres:true}")
+    private boolean copyPostgres;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    /**
+     * Importa os registros de {@code csv} para o usuário. Linhas inválidas são rejeitadas
+     * individualmente; os blocos já gravados não são desfeitos por erros posteriores.
+     *
+     * @throws RequisicaoInvalidaException se o arquivo estiver vazio ou o cabeçalho não tiver
+     *                                     as colunas obrigatórias
+     */
+    public ResultadoImportacaoDTO importar(String username, Reader csv) throws IOException {
+        CsvReader leitor = new CsvReader(csv, TAMANHO_MAXIMO_REGISTRO);
+        Map<String, Integer> colunas = lerCabecalho(leitor);
+
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        List<Compromisso> bloco = new ArrayList<>(tamanhoTransacao);
+        while (true) {
+            List<String> registro;
+            try {
+                registro = leitor.readRecord();
+            } catch (IllegalArgumentException e) {
+                // Sem o fim do registro não há como voltar a ler o arquivo com segurança
+                rejeitar(resultado, leitor.getRecordLine(), e.getMessage() + "; importação interrompida");
+                break;
+            }
+            if (registro == null) {
+                break;
+            }
+            if (registro.size() == 1 && registro.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                bloco.add(converter(registro, colunas));
+            } catch (RequisicaoInvalidaException e) {
+                rejeitar(resultado, leitor.getRecordLine(), e.getMessage());
+                continue;
+            }
+            if (bloco.size() == tamanhoTransacao) {
+                gravar(username, bloco);
+                resultado.setImportados(resultado.getImportados() + bloco.size());
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            gravar(username, bloco);
+            resultado.setImportados(resultado.getImportados() + bloco.size());
+        }
+
+        logger.info("Importação CSV de {}: {} importados, {} rejeitados",
+                username, resultado.getImportados(), resultado.getRejeitados());
+        return resultado;
+    }
+
+    private Map<String, Integer> lerCabecalho(CsvReader leitor) throws IOException {
+        List<String> cabecalho;
+        try {
+            cabecalho = leitor.readRecord();
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException("Cabeçalho inválido: " + e.getMessage());
+        }
+        if (cabecalho == null) {
+            throw new RequisicaoInvalidaException("Arquivo CSV vazio");
+        }
+
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            // Planilhas costumam gravar o BOM do UTF-8 no início do arquivo
+            String nome = cabecalho.get(i).replace("\uFEFF", "").trim();
+            colunas.putIfAbsent(nome, i);
+        }
+        List<String> ausentes = COLUNAS_OBRIGATORIAS.stream().filter(c -> !colunas.containsKey(c)).toList();
+        if (!ausentes.isEmpty()) {
+            throw new RequisicaoInvalidaException("Colunas obrigatórias ausentes no cabeçalho: " + String.join(", ", ausentes));
+        }
+        return colunas;
+    }
+
+    // Mesmas regras de CompromissoRequestDTO, exceto @FutureOrPresent: a importação traz histórico
+    private Compromisso converter(List<String> registro, Map<String, Integer> colunas) {
+        CompromissoRequestDTO dto = new CompromissoRequestDTO();
+        dto.setTitulo(CsvUtils.unsanitize(campo(registro, colunas, "titulo")));
+        String descricao = CsvUtils.unsanitize(campo(registro, colunas, "descricao"));
+        dto.setDescricao(descricao.isEmpty() ? null : descricao);
+
+        String dataHora = campo(registro, colunas, "dataHora").trim();
+        try {
+            dto.setDataHora(dataHora.isEmpty() ? null : LocalDateTime.parse(dataHora));
+        } catch (DateTimeParseException e) {
+            throw new RequisicaoInvalidaException("dataHora: formato inválido (use yyyy-MM-ddTHH:mm): " + dataHora);
+        }
+        dto.setTipo(enumerado(CompromissoTipo.class, "tipo", campo(registro, colunas, "tipo")));
+        CompromissoStatus status = enumerado(CompromissoStatus.class, "status", campo(registro, colunas, "status"));
+        dto.setStatus(status != null ? status : CompromissoStatus.PENDENTE);
+
+        String valor = campo(registro, colunas, "valor").trim();
+        try {
+            dto.setValor(valor.isEmpty() ? null : new BigDecimal(valor));
+        } catch (NumberFormatException e) {
+            throw new RequisicaoInvalidaException("valor: número inválido: " + valor);
+        }
+        String urgente = campo(registro, colunas, "urgente").trim();
+        if (!urgente.isEmpty() && !urgente.equalsIgnoreCase("true") && !urgente.equalsIgnoreCase("false")) {
+            throw new RequisicaoInvalidaException("urgente: use true ou false: " + urgente);
+        }
+        dto.setUrgente(urgente.equalsIgnoreCase("true"));
+
+        Set<ConstraintViolation<CompromissoRequestDTO>> violacoes = validator.validate(dto);
+        String erros = violacoes.stream()
+                .filter(v -> !(v.getConstraintDescriptor().getAnnotation() instanceof FutureOrPresent))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!erros.isEmpty()) {
+            throw new RequisicaoInvalidaException(erros);
+        }
+        return compromissoService.toEntity(dto);
+    }
+
+    private String campo(List<String> registro, Map<String, Integer> colunas, String nome) {
+        Integer indice = colunas.get(nome);
+        return indice != null && indice < registro.size() ? registro.get(indice) : "";
+    }
+
+    private <E extends Enum<E>> E enumerado(Class<E> tipo, String nome, String valor) {
+        String texto = valor.trim();
+        if (texto.isEmpty()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, texto);
+        } catch (IllegalArgumentException e) {
+            throw new RequisicaoInvalidaException(nome + ": valor inválido: " + texto);
+        }
+    }
+
+    private void rejeitar(ResultadoImportacaoDTO resultado, long linha, String mensagem) {
+        resultado.setRejeitados(resultado.getRejeitados() + 1);
+        if (resultado.getErros().size() < MAXIMO_ERROS_DETALHADOS) {
+            resultado.getErros().add(new ErroImportacaoDTO(linha, mensagem));
+        }
+    }
+
+    private void gravar(String username, List<Compromisso> bloco) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            VersaoSync versoes = compromissoService.incrementarVersao(username);
+            compromissoService.atribuirOrdem(versoes.getId(), bloco);
+            if (copyPostgres && databasePlatform.isPostgres()) {
+                copiar(versoes, bloco);
+            } else {
+                inserir(versoes, bloco);
+            }
+        });
+    }
+
+    // Como CompromissoService.criarEmLote: INSERTs em lotes JDBC, contexto limpo a cada lote
+    private void inserir(VersaoSync versoes, List<Compromisso> bloco) {
+        Usuario usuario = entityManager.getReference(Usuario.class, versoes.getId());
+        for (int i = 0; i < bloco.size(); i++) {
+            Compromisso compromisso = bloco.get(i);
+            compromisso.setUsuario(usuario);
+            compromisso.setVersaoAlteracao(versoes.getVersaoDados());
+            compromissoRepository.save(compromisso);
+
+            if ((i + 1) % tamanhoLoteJdbc == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void copiar(VersaoSync versoes, List<Compromisso> bloco) {
+        Iterator<Long> ids = reservarIds(bloco.size()).iterator();
+        StringBuilder dados = new StringBuilder(bloco.size() * 128);
+        for (Compromisso c : bloco) {
+            dados.append(ids.next()).append(',')
+                    .append(textoCopy(c.getTitulo())).append(',')
+                    .append(textoCopy(c.getDescricao())).append(',')
+                    .append(c.getDataHora()).append(',')
+                    .append(c.getValor()).append(',')
+                    .append(c.getTipo()).append(',')
+                    .append(c.getStatus()).append(',')
+                    .append(c.isUrgente()).append(',')
+                    .append(c.getOrdem()).append('\n');
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (Statement st = conexao.createStatement()) {
+                st.execute("CREATE TEMP TABLE IF NOT EXISTS compromisso_importacao " +
+                        "(LIKE compromisso INCLUDING DEFAULTS) ON COMMIT DELETE ROWS");
+                st.execute("TRUNCATE compromisso_importacao");
+            }
+            try {
+                conexao.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                        "COPY compromisso_importacao (id, titulo, descricao, data_hora, valor, tipo, status, urgente, ordem) " +
+                        "FROM STDIN (FORMAT csv)", new StringReader(dados.toString()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Falha no COPY da importação", e);
+            }
+            return null;
+        });
+        jdbcTemplate.update("INSERT INTO compromisso " +
+                "(id, titulo, descricao, data_hora, valor, tipo, status, urgente, ordem, user_id, versao_alteracao, versao) " +
+                "SELECT id, titulo, descricao, data_hora, valor, tipo, status, urgente, ordem, ?, ?, 0 " +
+                "FROM compromisso_importacao", versoes.getId(), versoes.getVersaoDados());
+    }
+
+    // Ids no formato do otimizador pooled do Hibernate: cada nextval devolve o topo v de um
+    // bloco [v - ALOCACAO_IDS + 1, v] que nenhuma outra sessão usa
+    private List<Long> reservarIds(int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        while (ids.size() < quantidade) {
+            int blocos = (quantidade - ids.size() + Compromisso.ALOCACAO_IDS - 1) / Compromisso.ALOCACAO_IDS;
+            List<Long> topos = jdbcTemplate.queryForList(
+                    "SELECT nextval('compromisso_seq') FROM generate_series(1, ?)", Long.class, blocos);
+            for (long topo : topos) {
+                // O primeiro valor da sequência (1) não tem bloco completo abaixo dele
+                for (long id = Math.max(1, topo - Compromisso.ALOCACAO_IDS + 1); id <= topo && ids.size() < quantidade; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Texto entre aspas no CSV do COPY; null vira campo vazio sem aspas (NULL)
+    private static String textoCopy(String texto) {
+        return texto == null ? "" : "\"" + texto.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.dto.LoteOperacoesDTO;
+import com.example.backend.dto.OperacaoDTO;
+import com.example.backend.dto.ResultadoOperacaoDTO;
+import com.example.backend.dto.ResultadoOperacoesDTO;
+import com.example.backend.dto.VersaoSync;
+import com.example.backend.exception.ErrorResponse;
+import com.example.backend.exception.RequisicaoInvalidaException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+
+/**
+ * Executa várias operações de compromisso recebidas em uma única requisição HTTP
+ * (POST /api/compromissos/batch). Autenticação, busca do usuário pelo filtro JWT e, no modo
+ * atômico, a conexão e a transação são pagas uma vez pelo lote, em vez de uma vez por operação.
+ *
+ * Cada operação chama o mesmo método de {@link CompromissoService} do endpoint REST
+ * equivalente, com as mesmas validações, checagens de dono e If-Match; os erros viram o
+ * status e o {@link ErrorResponse} que aquela requisição teria devolvido. O usuário é resolvido
+ * e a versão de dados incrementada uma vez por transação (por lote no modo atômico, por
+ * operação no outro), e a versão é repassada às operações de escrita.
+ */
+@Service
+public class OperacoesLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperacoesLoteService.class);
+
+    private static final String CAMINHO = "/api/compromissos";
+
+    private static final Set<String> ESCRITAS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${compromisso.operacoes-lote.tamanho-maximo:100}")
+    private int tamanhoMaximo;
+
+    /**
+     * Executa as operações na ordem recebida. No modo atômico a primeira falha desfaz o lote:
+     * a operação que falhou traz o seu erro e as demais, status 424 (Failed Dependency).
+     */
+    public ResultadoOperacoesDTO executar(String username, LoteOperacoesDTO lote) {
+        List<OperacaoDTO> operacoes = lote.getOperacoes();
+        if (operacoes.size() > tamanhoMaximo) {
+            throw new RequisicaoInvalidaException("O lote deve ter no máximo " + tamanhoMaximo + " operações");
+        }
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<ResultadoOperacaoDTO> resultados = new ArrayList<>(operacoes.size());
+
+        if (!lote.isAtomico()) {
+            for (OperacaoDTO operacao : operacoes) {
+                try {
+                    // DELETE segue o caminho do endpoint, que só incrementa a versão se excluir algo
+                    resultados.add(transacao.execute(status -> executar(username, operacao,
+                            escrita(operacao) && !metodo(operacao).equals("DELETE")
+                                    ? compromissoService.incrementarVersao(username)
+                                    : null)));
+                } catch (RuntimeException e) {
+                    resultados.add(erro(operacao, e));
+                }
+            }
+            return new ResultadoOperacoesDTO(true, resultados);
+        }
+
+        try {
+            transacao.executeWithoutResult(status -> {
+                // Todas as escritas do lote compartilham a versão: o sync as vê como uma única alteração
+                VersaoSync versoes = operacoes.stream().anyMatch(OperacoesLoteService::escrita)
+                        ? compromissoService.incrementarVersao(username)
+                        : null;
+                for (OperacaoDTO operacao : operacoes) {
+                    resultados.add(executar(username, operacao, versoes));
+                }
+            });
+            return new ResultadoOperacoesDTO(true, resultados);
+        } catch (RuntimeException e) {
+            int falha = resultados.size();
+            if (falha == operacoes.size()) {
+                // Todas as operações passaram e o commit falhou: não há operação a quem atribuir o erro
+                throw e;
+            }
+            List<ResultadoOperacaoDTO> revertidos = new ArrayList<>(operacoes.size());
+            for (int i = 0; i < operacoes.size(); i++) {
+                if (i == falha) {
+                    revertidos.add(erro(operacoes.get(i), e));
+                } else {
+                    revertidos.add(naoAplicada(operacoes.get(i), i < falha
+                            ? "Operação desfeita: a operação de índice " + falha + " falhou"
+                            : "Operação não executada: a operação de índice " + falha + " falhou"));
+                }
+            }
+            return new ResultadoOperacoesDTO(false, revertidos);
+        }
+    }
+
+    private ResultadoOperacaoDTO executar(String username, OperacaoDTO operacao, VersaoSync versoes) {
+        String metodo = metodo(operacao);
+        if (!metodo.equals("POST") && operacao.getId() == null) {
+            throw new RequisicaoInvalidaException("O id é obrigatório para " + metodo);
+        }
+        Long id = operacao.getId();
+        return switch (metodo) {
+            case "POST" -> comEtag(HttpStatus.CREATED, compromissoService.criar(corpo(operacao), username, versoes));
+            case "PUT" -> comEtag(HttpStatus.OK,
+                    compromissoService.atualizar(id, corpo(operacao), username, operacao.getVersao(), versoes));
+            case "PATCH" -> comEtag(HttpStatus.OK, compromissoService.atualizarParcial(
+                    id, operacao.getCorpo(), username, operacao.getVersao(), versoes));
+            case "DELETE" -> {
+                if (versoes != null) {
+                    compromissoService.deletar(id, username, operacao.getVersao(), versoes);
+                } else {
+                    compromissoService.deletar(id, username, operacao.getVersao());
+                }
+                yield new ResultadoOperacaoDTO(HttpStatus.NO_CONTENT.value(), null, null);
+            }
+            case "GET" -> comEtag(HttpStatus.OK, compromissoService.buscarPorId(id, username));
+            default -> throw new RequisicaoInvalidaException("Método não suportado no lote: " + operacao.getMetodo());
+        };
+    }
+
+    private static String metodo(OperacaoDTO operacao) {
+        return operacao.getMetodo().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean escrita(OperacaoDTO operacao) {
+        return ESCRITAS.contains(metodo(operacao));
+    }
+
+    // Mesmas regras do @Valid de POST e PUT
+    private CompromissoRequestDTO corpo(OperacaoDTO operacao) {
+        if (operacao.getCorpo() == null || !operacao.getCorpo().isObject()) {
+            throw new RequisicaoInvalidaException("O corpo da operação é obrigatório");
+        }
+        CompromissoRequestDTO dto;
+        try {
+            dto = objectMapper.treeToValue(operacao.getCorpo(), CompromissoRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new RequisicaoInvalidaException("Valor inválido no corpo da operação");
+        }
+        String erros = validator.validate(dto).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        if (!erros.isEmpty()) {
+            throw new RequisicaoInvalidaException(erros);
+        }
+        return dto;
+    }
+
+    private ResultadoOperacaoDTO comEtag(HttpStatus status, CompromissoResponseDTO dto) {
+        return new ResultadoOperacaoDTO(status.value(), "\"" + dto.getVersao() + "\"", dto);
+    }
+
+    // Status do @ResponseStatus da exceção, como o GlobalExceptionHandler faria; demais erros viram 500
+    private ResultadoOperacaoDTO erro(OperacaoDTO operacao, RuntimeException e) {
+        ResponseStatus anotacao = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        HttpStatus status = anotacao != null ? anotacao.code() : HttpStatus.INTERNAL_SERVER_ERROR;
+        if (anotacao == null) {
+            logger.error("Falha inesperada em operação do lote", e);
+        }
+        return new ResultadoOperacaoDTO(status.value(), null,
+                new ErrorResponse(status.value(), status.getReasonPhrase(), e.getMessage(), caminho(operacao)));
+    }
+
+    private ResultadoOperacaoDTO naoAplicada(OperacaoDTO operacao, String mensagem) {
+        HttpStatus status = HttpStatus.FAILED_DEPENDENCY;
+        return new ResultadoOperacaoDTO(status.value(), null,
+                new ErrorResponse(status.value(), status.getReasonPhrase(), mensagem, caminho(operacao)));
+    }
+
+    private String caminho(OperacaoDTO operacao) {
+        return operacao.getId() != null ? CAMINHO + "/" + operacao.getId() : CAMINHO;
+    }
+}
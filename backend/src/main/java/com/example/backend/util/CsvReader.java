@@ -0,0 +1,122 @@
+package com.example.backend.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: returns one record at a time, so memory is bounded by the
+ * longest record and not by the size of the input. Understands the format written by
+ * {@link CsvUtils#sanitize(String)}: quoted fields with embedded commas, line breaks and
+ * doubled quotes; {@code \n} and {@code \r\n} line endings.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final int maxRecordLength;
+
+    private long line = 1;
+    private long recordLine;
+    private int pending = NONE;
+
+    /**
+     * @param reader          Source, ideally buffered (read one char at a time)
+     * @param maxRecordLength Maximum number of characters of a record
+     */
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The fields of the record, or null at the end of the input
+     * @throws IllegalArgumentException if a quoted field is not closed or the record is too long
+     */
+    public List<String> readRecord() throws IOException {
+        int c = next();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IllegalArgumentException("Registro com mais de " + maxRecordLength + " caracteres na linha " + recordLine);
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Aspas não fechadas no registro da linha " + recordLine);
+                }
+                if (c == '"') {
+                    int after = next();
+                    if (after == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = after;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                if (c == '\n') {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '\r') {
+                int after = next();
+                if (after != '\n') {
+                    pending = after;
+                    field.append('\r');
+                } else {
+                    c = after;
+                    continue;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = next();
+        }
+    }
+
+    /**
+     * @return Line of the input where the last record returned by {@link #readRecord()} starts
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int next() throws IOException {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
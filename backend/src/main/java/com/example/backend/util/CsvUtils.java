@@ -36,4 +36,18 @@ public class CsvUtils {
         
         return escaped;
     }
+
+    /**
+     * Reverts the CSV Injection guard of {@link #sanitize(String)} on an already unquoted
+     * field: a single quote followed by a formula trigger (=, +, -, @) is removed.
+     *
+     * @param s The field read from a CSV file
+     * @return The original value
+     */
+    public static String unsanitize(String s) {
+        if (s != null && s.length() > 1 && s.charAt(0) == '\'' && "=+-@".indexOf(s.charAt(1)) >= 0) {
+            return s.substring(1);
+        }
+        return s;
+    }
 }
@@ -0,0 +1,265 @@
+package com.example.backend.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Row-oriented CSV encoder that writes straight into a reusable char buffer.
+ * Text fields get the same escaping and CSV Injection guard as {@link CsvUtils#sanitize(String)}
+ * in a single pass over the value, and numbers and dates are written digit by digit, so a row
+ * does not create intermediate Strings. Output is byte-identical to joining
+ * {@code CsvUtils.sanitize}, {@code String.valueOf} and {@code DateTimeFormatter} results
+ * with commas.
+ *
+ * Not thread-safe. {@link #flush()} must be called after the last row.
+ */
+public class CsvWriter implements Flushable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    // Used only for years outside 1..9999, which the fast path does not cover
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    private final Writer out;
+    private char[] buffer;
+    private int position;
+    private boolean startOfRow = true;
+
+    public CsvWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(Writer out, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.out = out;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Writes a text field, escaped like {@link CsvUtils#sanitize(String)}: null becomes an empty
+     * field, a leading =, +, - or @ gets a single quote, and the field is quoted (with inner quotes
+     * doubled) when it contains a comma, quote or line break.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        int length = value.length();
+        // Worst case: opening quote, guard, every char doubled, closing quote
+        ensureCapacity(2 * length + 3);
+
+        // The first slot is kept for the opening quote; dropped below if quoting is not needed
+        int start = position;
+        int p = start + 1;
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            buffer[p++] = '\'';
+        }
+        boolean quote = false;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer[p++] = '"';
+                quote = true;
+            } else if (c == ',' || c == '\n' || c == '\r') {
+                quote = true;
+            }
+            buffer[p++] = c;
+        }
+        if (quote) {
+            buffer[start] = '"';
+            buffer[p++] = '"';
+            position = p;
+        } else {
+            System.arraycopy(buffer, start + 1, buffer, start, p - start - 1);
+            position = p - 1;
+        }
+        return this;
+    }
+
+    /**
+     * Writes a whole number as {@link Long#toString(long)} would; null becomes an empty field.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(Long value) throws IOException {
+        separator();
+        if (value != null) {
+            appendLong(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes {@code true} or {@code false}.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(boolean value) throws IOException {
+        separator();
+        append(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a constant name as {@link Enum#name()}; null becomes an empty field.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(Enum<?> value) throws IOException {
+        separator();
+        if (value != null) {
+            append(value.name());
+        }
+        return this;
+    }
+
+    /**
+     * Writes a decimal as {@link BigDecimal#toString()}, which the instance computes once and
+     * caches; null becomes an empty field.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(BigDecimal value) throws IOException {
+        separator();
+        if (value != null) {
+            append(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Writes a date and time as {@code yyyy-MM-dd'T'HH:mm}, the layout read back by the import;
+     * null becomes an empty field.
+     *
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public CsvWriter field(LocalDateTime value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        int year = value.getYear();
+        if (year < 1 || year > 9999) {
+            append(DATE_TIME.format(value));
+            return this;
+        }
+        ensureCapacity(16);
+        appendDigits(year, 4);
+        buffer[position++] = '-';
+        appendDigits(value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        appendDigits(value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        appendDigits(value.getHour(), 2);
+        buffer[position++] = ':';
+        appendDigits(value.getMinute(), 2);
+        return this;
+    }
+
+    /**
+     * Ends the current row with a line feed.
+     *
+     * @throws IOException if flushing the buffer fails
+     */
+    public void endRow() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+        startOfRow = true;
+    }
+
+    /**
+     * Writes the buffered chars and flushes the underlying writer.
+     *
+     * @throws IOException if the underlying writer fails
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void separator() throws IOException {
+        if (startOfRow) {
+            startOfRow = false;
+        } else {
+            ensureCapacity(1);
+            buffer[position++] = ',';
+        }
+    }
+
+    private void append(String s) throws IOException {
+        ensureCapacity(s.length());
+        s.getChars(0, s.length(), buffer, position);
+        position += s.length();
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    // Zero-padded to exactly `width` digits; capacity already ensured by the caller
+    private void appendDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void ensureCapacity(int chars) throws IOException {
+        if (position + chars <= buffer.length) {
+            return;
+        }
+        drain();
+        if (chars > buffer.length) {
+            // A single field larger than the buffer: grow it once and keep reusing it
+            buffer = new char[chars];
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class for opaque keyset (cursor) pagination tokens.
+ * A cursor carries the sort key and the id of the last row of a page,
+ * encoded as URL-safe Base64 so clients treat it as an opaque string.
+ */
+public class CursorUtils {
+
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Position of the last row returned in a page.
+     *
+     * @param chave The sort key of the row (already converted to String)
+     * @param id    The id of the row, used as tie-breaker
+     */
+    public record Posicao(String chave, long id) {
+    }
+
+    /**
+     * Encodes a page position into an opaque cursor.
+     *
+     * @param chave The sort key of the last row
+     * @param id    The id of the last row
+     * @return URL-safe cursor
+     */
+    public static String encode(String chave, long id) {
+        String raw = id + String.valueOf(SEPARADOR) + chave;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(String, long)}.
+     *
+     * @param cursor The opaque cursor
+     * @return The decoded position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Posicao decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int sep = raw.indexOf(SEPARADOR);
+        if (sep <= 0) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        long id = Long.parseLong(raw.substring(0, sep));
+        return new Posicao(raw.substring(sep + 1), id);
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.backend.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Line-oriented iCalendar (RFC 5545) encoder that writes content lines straight into a reusable
+ * char buffer. Lines end with CRLF and are folded so that no line exceeds 75 octets in UTF-8,
+ * never splitting a character; TEXT values are escaped in the same pass, so a property does not
+ * create intermediate Strings.
+ *
+ * Not thread-safe. {@link #flush()} must be called after the last line.
+ */
+public class IcsWriter implements Flushable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_LINE_OCTETS = 75;
+
+    // Room for the longest unit written at once: a UTC date-time
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private final Writer out;
+    private char[] buffer;
+    private int position;
+    private int lineOctets;
+
+    public IcsWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public IcsWriter(Writer out, int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("bufferSize must be at least " + MIN_BUFFER_SIZE);
+        }
+        this.out = out;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Writes {@code BEGIN:<component>}.
+     *
+     * @param component The component name, e.g. VCALENDAR or VEVENT
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public IcsWriter begin(String component) throws IOException {
+        return property("BEGIN", component);
+    }
+
+    /**
+     * Writes {@code END:<component>}.
+     *
+     * @param component The component name, e.g. VCALENDAR or VEVENT
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public IcsWriter end(String component) throws IOException {
+        return property("END", component);
+    }
+
+    /**
+     * Writes a property whose value is already valid iCalendar (a constant, a duration, an
+     * identifier without special characters). The value is folded but not escaped.
+     *
+     * @param name The property name, optionally followed by parameters (e.g. {@code X-A;VALUE=DURATION})
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public IcsWriter property(String name, String value) throws IOException {
+        startLine(name);
+        for (int i = 0; i < value.length(); i++) {
+            appendChar(value.charAt(i));
+        }
+        return endLine();
+    }
+
+    /**
+     * Writes a TEXT property: backslash, semicolon and comma are escaped, line breaks become
+     * {@code \n} and other control characters (forbidden in TEXT) are dropped. A null or empty
+     * value writes nothing, since empty TEXT properties are pointless in a feed.
+     *
+     * @param name The property name
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public IcsWriter text(String name, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        startLine(name);
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> {
+                    appendChar('\\');
+                    appendChar(c);
+                }
+                case '\n' -> {
+                    appendChar('\\');
+                    appendChar('n');
+                }
+                default -> {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        appendSurrogatePair(c, value.charAt(++i));
+                    } else if (c >= ' ' && c != 0x7F || c == '\t') {
+                        appendChar(c);
+                    }
+                }
+            }
+        }
+        return endLine();
+    }
+
+    /**
+     * Writes a whole-number property, e.g. SEQUENCE or PRIORITY.
+     *
+     * @param name The property name
+     * @param value The value to write
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     */
+    public IcsWriter property(String name, long value) throws IOException {
+        return property(name, Long.toString(value));
+    }
+
+    /**
+     * Writes a floating DATE-TIME ({@code yyyyMMdd'T'HHmmss}, no time zone): the event happens at
+     * that wall-clock time in whatever zone the calendar client is in.
+     *
+     * @param name The property name, e.g. DTSTART
+     * @param value The value to write; the year must be between 0 and 9999
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     * @throws IllegalArgumentException if the year has more than four digits or is negative
+     */
+    public IcsWriter property(String name, LocalDateTime value) throws IOException {
+        return dateTime(name, value, false);
+    }
+
+    /**
+     * Writes a UTC DATE-TIME ({@code yyyyMMdd'T'HHmmss'Z'}), e.g. DTSTAMP or LAST-MODIFIED.
+     *
+     * @param name The property name
+     * @param value The value to write; the year must be between 0 and 9999
+     * @return this writer
+     * @throws IOException if flushing the buffer fails
+     * @throws IllegalArgumentException if the year has more than four digits or is negative
+     */
+    public IcsWriter property(String name, Instant value) throws IOException {
+        return dateTime(name, LocalDateTime.ofInstant(value, ZoneOffset.UTC), true);
+    }
+
+    /**
+     * Writes the buffered chars and flushes the underlying writer.
+     *
+     * @throws IOException if the underlying writer fails
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void startLine(String name) throws IOException {
+        lineOctets = 0;
+        for (int i = 0; i < name.length(); i++) {
+            appendChar(name.charAt(i));
+        }
+        appendChar(':');
+    }
+
+    private IcsWriter dateTime(String name, LocalDateTime value, boolean utc) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("iCalendar dates need a four-digit year: " + value);
+        }
+        startLine(name);
+        int octets = utc ? 16 : 15;
+        fold(octets);
+        ensureCapacity(octets);
+        appendDigits(year, 4);
+        appendDigits(value.getMonthValue(), 2);
+        appendDigits(value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        appendDigits(value.getHour(), 2);
+        appendDigits(value.getMinute(), 2);
+        appendDigits(value.getSecond(), 2);
+        if (utc) {
+            buffer[position++] = 'Z';
+        }
+        lineOctets += octets;
+        return endLine();
+    }
+
+    private IcsWriter endLine() throws IOException {
+        ensureCapacity(2);
+        buffer[position++] = '\r';
+        buffer[position++] = '\n';
+        return this;
+    }
+
+    private void appendChar(char c) throws IOException {
+        int octets = c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        fold(octets);
+        ensureCapacity(1);
+        buffer[position++] = c;
+        lineOctets += octets;
+    }
+
+    // Four octets in UTF-8; the pair is kept on the same line
+    private void appendSurrogatePair(char high, char low) throws IOException {
+        fold(4);
+        ensureCapacity(2);
+        buffer[position++] = high;
+        buffer[position++] = low;
+        lineOctets += 4;
+    }
+
+    // Continuation lines start with a space, which counts towards their 75 octets
+    private void fold(int octets) throws IOException {
+        if (lineOctets + octets > MAX_LINE_OCTETS) {
+            ensureCapacity(3);
+            buffer[position++] = '\r';
+            buffer[position++] = '\n';
+            buffer[position++] = ' ';
+            lineOctets = 1;
+        }
+    }
+
+    // Zero-padded to exactly `width` digits; capacity already ensured by the caller
+    private void appendDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void ensureCapacity(int chars) throws IOException {
+        if (position + chars > buffer.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
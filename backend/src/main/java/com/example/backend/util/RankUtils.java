@@ -0,0 +1,130 @@
+package com.example.backend.util;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class for fractional ordering keys (LexoRank style).
+ * A key is a base-36 fraction in [0, 1) written with the digits {@code 0-9a-z} and no
+ * trailing {@code '0'}, so comparing two keys as strings compares the fractions they
+ * represent. There is always room for a new key between two others, which lets a single
+ * row be moved without renumbering its neighbours. Only ASCII digits and lowercase letters
+ * are used, so the order is the same under any database collation.
+ */
+public class RankUtils {
+
+    private static final int RADIX = 36;
+    private static final BigInteger BASE = BigInteger.valueOf(RADIX);
+
+    // Keys are generated with at least this many digits before trailing zeros are removed
+    private static final int MIN_LENGTH = 4;
+
+    // Keys placed at either end of a list advance by at most 1/36^2 of the key space,
+    // so appending or prepending one by one keeps keys short for a long time
+    private static final int END_STEP_DIGITS = 2;
+
+    /**
+     * Checks whether a string is a well-formed key.
+     *
+     * @param key The key to check
+     * @return true if the key is non-empty, uses only {@code 0-9a-z} and does not end in '0'
+     */
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.charAt(key.length() - 1) == '0') {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.digit(key.charAt(i), RADIX) < 0 || Character.isUpperCase(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates a key strictly between two keys.
+     *
+     * @param before The key that must sort before the result, or null for the start of the list
+     * @param after  The key that must sort after the result, or null for the end of the list
+     * @return A new key
+     * @throws IllegalArgumentException if a key is malformed or {@code before} is not lower than {@code after}
+     */
+    public static String between(String before, String after) {
+        return between(before, after, 1).get(0);
+    }
+
+    /**
+     * Generates {@code count} increasing keys strictly between two keys, evenly spaced.
+     * With both bounds null this yields a fresh set of short keys for a whole list.
+     *
+     * @param before The key that must sort before the results, or null for the start of the list
+     * @param after  The key that must sort after the results, or null for the end of the list
+     * @param count  The number of keys to generate
+     * @return The keys in ascending order
+     * @throws IllegalArgumentException if a key is malformed, {@code before} is not lower than
+     *                                  {@code after} or {@code count} is negative
+     */
+    public static List<String> between(String before, String after, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if ((before != null && !isValid(before)) || (after != null && !isValid(after))) {
+            throw new IllegalArgumentException("Malformed key");
+        }
+        if (before != null && after != null && before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("before must be lower than after");
+        }
+
+        BigInteger quantity = BigInteger.valueOf(count);
+        int length = Math.max(MIN_LENGTH, Math.max(lengthOf(before), lengthOf(after)));
+        while (true) {
+            BigInteger low = before == null ? BigInteger.ZERO : toValue(before, length);
+            BigInteger high = after == null ? BASE.pow(length) : toValue(after, length);
+            BigInteger room = high.subtract(low);
+            if (room.compareTo(quantity) > 0) {
+                BigInteger step = room.divide(quantity.add(BigInteger.ONE));
+                if (before == null || after == null) {
+                    step = step.min(BASE.pow(length - END_STEP_DIGITS));
+                }
+                List<String> keys = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    // Prepending keeps the keys next to the first existing key
+                    BigInteger value = before == null && after != null
+                            ? high.subtract(step.multiply(BigInteger.valueOf(count - i)))
+                            : low.add(step.multiply(BigInteger.valueOf(i + 1L)));
+                    keys.add(toKey(value, length));
+                }
+                return keys;
+            }
+            length++;
+        }
+    }
+
+    private static int lengthOf(String key) {
+        return key == null ? 0 : key.length();
+    }
+
+    // The key read as an integer with exactly `length` base-36 digits (right-padded with zeros)
+    private static BigInteger toValue(String key, int length) {
+        StringBuilder digits = new StringBuilder(length).append(key);
+        while (digits.length() < length) {
+            digits.append('0');
+        }
+        return new BigInteger(digits.toString(), RADIX);
+    }
+
+    private static String toKey(BigInteger value, int length) {
+        String digits = value.toString(RADIX);
+        StringBuilder key = new StringBuilder(length);
+        for (int i = digits.length(); i < length; i++) {
+            key.append('0');
+        }
+        key.append(digits);
+        int end = key.length();
+        while (key.charAt(end - 1) == '0') {
+            end--;
+        }
+        return key.substring(0, end);
+    }
+}
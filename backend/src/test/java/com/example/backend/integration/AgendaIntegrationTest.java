@@ -0,0 +1,184 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Agenda Window Integration Tests")
+class AgendaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDate hoje = LocalDate.of(2030, 1, 10);
+        createCompromisso(user1, "Ontem", hoje.minusDays(1).atTime(10, 0));
+        createCompromisso(user1, "Hoje tarde", hoje.atTime(18, 0));
+        createCompromisso(user1, "Hoje cedo", hoje.atTime(8, 0));
+        createCompromisso(user1, "Em 2 dias", hoje.plusDays(2).atTime(9, 0));
+        createCompromisso(user1, "Em 7 dias", hoje.plusDays(7).atTime(23, 59));
+        createCompromisso(user1, "Em 8 dias", hoje.plusDays(8).atTime(0, 0));
+        createCompromisso(user1, "Em 15 dias", hoje.plusDays(15).atTime(12, 0));
+        createCompromisso(user1, "Em 16 dias", hoje.plusDays(16).atTime(0, 0));
+        createCompromisso(user2, "Outro usuario", hoje.atTime(9, 0));
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String titulo, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo("OUTROS");
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    @Test
+    @DisplayName("AGENDA: Should return window items grouped by day in order")
+    void agenda_GroupsByDay() throws Exception {
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-01-10")
+                        .param("to", "2030-01-13")
+                        .param("hoje", "2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2030-01-10"))
+                .andExpect(jsonPath("$.to").value("2030-01-13"))
+                .andExpect(jsonPath("$.dias", hasSize(2)))
+                .andExpect(jsonPath("$.dias[0].data").value("2030-01-10"))
+                .andExpect(jsonPath("$.dias[0].itens", hasSize(2)))
+                .andExpect(jsonPath("$.dias[0].itens[0].titulo").value("Hoje cedo"))
+                .andExpect(jsonPath("$.dias[0].itens[1].titulo").value("Hoje tarde"))
+                .andExpect(jsonPath("$.dias[1].data").value("2030-01-12"))
+                .andExpect(jsonPath("$.dias[1].itens[0].titulo").value("Em 2 dias"));
+    }
+
+    @Test
+    @DisplayName("AGENDA: Badge counts should match the client-side today/7/15 semantics")
+    void agenda_BadgeCounts() throws Exception {
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-01-10")
+                        .param("to", "2030-01-11")
+                        .param("hoje", "2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hoje").value(2))
+                .andExpect(jsonPath("$.proximos7").value(4))
+                .andExpect(jsonPath("$.proximos15").value(6));
+    }
+
+    @Test
+    @DisplayName("AGENDA: Window end should be exclusive")
+    void agenda_EndExclusive() throws Exception {
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-01-17")
+                        .param("to", "2030-01-18")
+                        .param("hoje", "2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dias", hasSize(1)))
+                .andExpect(jsonPath("$.dias[0].itens", hasSize(1)))
+                .andExpect(jsonPath("$.dias[0].itens[0].titulo").value("Em 7 dias"));
+    }
+
+    @Test
+    @DisplayName("AGENDA: Should only include rows of the authenticated user")
+    void agenda_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user2Token)
+                        .param("from", "2030-01-01")
+                        .param("to", "2030-02-01")
+                        .param("hoje", "2030-01-10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dias", hasSize(1)))
+                .andExpect(jsonPath("$.dias[0].itens[0].titulo").value("Outro usuario"))
+                .andExpect(jsonPath("$.hoje").value(1));
+    }
+
+    @Test
+    @DisplayName("AGENDA: Should return 400 for empty or oversized windows")
+    void agenda_InvalidWindow() throws Exception {
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-01-10")
+                        .param("to", "2030-01-10"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/compromissos/agenda")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-01-01")
+                        .param("to", "2032-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
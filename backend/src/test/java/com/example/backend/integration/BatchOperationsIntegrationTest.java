@@ -0,0 +1,258 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: o rollback de um lote atômico só é observável com transações reais,
+// então os dados são removidos ao fim de cada teste
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"compromisso.operacoes-lote.tamanho-maximo=5", SqlCapturada.PROPRIEDADE})
+@DisplayName("Batch Operations Integration Tests")
+class BatchOperationsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        limpar();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("Original");
+        doUser1.setDescricao("Descrição original");
+        doUser1.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        doUser1.setTipo("PERICIA");
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    @AfterEach
+    void limpar() {
+        compromissoRepository.deleteAll();
+        compromissoRemovidoRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final String NOVO =
+            "{\"titulo\":\"Novo\",\"dataHora\":\"2030-03-01T10:00\",\"tipo\":\"TRABALHO\"}";
+
+    private JsonNode executar(String token, String json) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/compromissos/batch")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private List<Integer> statusDe(JsonNode lote) {
+        List<Integer> status = new ArrayList<>();
+        lote.get("resultados").forEach(r -> status.add(r.get("status").asInt()));
+        return status;
+    }
+
+    private List<String> titulos() {
+        return compromissoRepository.findAll().stream().map(Compromisso::getTitulo).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("BATCH: Atomic batch should run every operation and return per-operation results")
+    void atomico_Sucesso() throws Exception {
+        Long id = doUser1.getId();
+        JsonNode lote = executar(user1Token, "{\"operacoes\":[" +
+                "{\"metodo\":\"POST\",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"PATCH\",\"id\":" + id + ",\"versao\":0,\"corpo\":{\"status\":\"CONCLUIDO\"}}," +
+                "{\"metodo\":\"get\",\"id\":" + id + "}]}");
+
+        assertThat(lote.get("aplicado").asBoolean()).isTrue();
+        assertThat(statusDe(lote)).containsExactly(201, 200, 200);
+        assertThat(lote.at("/resultados/0/corpo/titulo").asText()).isEqualTo("Novo");
+        assertThat(lote.at("/resultados/0/etag").asText()).isEqualTo("\"0\"");
+        assertThat(lote.at("/resultados/1/etag").asText()).isEqualTo("\"1\"");
+        assertThat(lote.at("/resultados/2/corpo/status").asText()).isEqualTo("CONCLUIDO");
+        assertThat(titulos()).containsExactly("Novo", "Original");
+    }
+
+    @Test
+    @DisplayName("BATCH: A failure in an atomic batch should roll back every operation")
+    void atomico_FalhaDesfazTudo() throws Exception {
+        Long id = doUser1.getId();
+        JsonNode lote = executar(user1Token, "{\"operacoes\":[" +
+                "{\"metodo\":\"POST\",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"PATCH\",\"id\":" + id + ",\"versao\":7,\"corpo\":{\"status\":\"CONCLUIDO\"}}," +
+                "{\"metodo\":\"DELETE\",\"id\":" + id + "}]}");
+
+        assertThat(lote.get("aplicado").asBoolean()).isFalse();
+        assertThat(statusDe(lote)).containsExactly(424, 412, 424);
+        assertThat(lote.at("/resultados/1/corpo/error").asText()).isEqualTo("Precondition Failed");
+        assertThat(lote.at("/resultados/1/corpo/path").asText()).isEqualTo("/api/compromissos/" + id);
+        assertThat(titulos()).containsExactly("Original");
+        assertThat(compromissoRepository.findById(id).orElseThrow().getStatus()).isEqualTo("PENDENTE");
+    }
+
+    @Test
+    @DisplayName("BATCH: An atomic batch should resolve the user and claim one data version for all its writes")
+    void atomico_UmaVersaoPorLote() throws Exception {
+        Long id = doUser1.getId();
+        Compromisso outro = new Compromisso();
+        outro.setTitulo("Outro");
+        outro.setDataHora(LocalDateTime.of(2030, 1, 2, 9, 0));
+        outro.setTipo("PERICIA");
+        outro.setUsuario(user1);
+        Long outroId = compromissoRepository.saveAndFlush(outro).getId();
+        long antes = usuarioRepository.findByUsername("user1").orElseThrow().getVersaoDados();
+
+        SqlCapturada.SQL.clear();
+        JsonNode lote = executar(user1Token, "{\"operacoes\":[" +
+                "{\"metodo\":\"POST\",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"POST\",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"PUT\",\"id\":" + id + ",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"PATCH\",\"id\":" + id + ",\"corpo\":{\"valor\":10}}," +
+                "{\"metodo\":\"DELETE\",\"id\":" + outroId + "}]}");
+
+        assertThat(statusDe(lote)).containsExactly(201, 201, 200, 200, 204);
+        assertThat(SqlCapturada.SQL.stream().filter(sql -> sql.startsWith("update users"))).hasSize(1);
+        long depois = usuarioRepository.findByUsername("user1").orElseThrow().getVersaoDados();
+        assertThat(depois).isEqualTo(antes + 1);
+        assertThat(compromissoRepository.findAll()).extracting(Compromisso::getVersaoAlteracao).containsOnly(depois);
+        assertThat(compromissoRemovidoRepository.findAll()).singleElement()
+                .satisfies(r -> assertThat(r.getVersao()).isEqualTo(depois));
+    }
+
+    @Test
+    @DisplayName("BATCH: Non-atomic batch should commit each operation independently")
+    void naoAtomico_FalhasIndependentes() throws Exception {
+        Long id = doUser1.getId();
+        JsonNode lote = executar(user2Token, "{\"atomico\":false,\"operacoes\":[" +
+                "{\"metodo\":\"POST\",\"corpo\":" + NOVO + "}," +
+                "{\"metodo\":\"DELETE\",\"id\":" + id + "}," +
+                "{\"metodo\":\"POST\",\"corpo\":{\"titulo\":\"\",\"dataHora\":\"2030-03-01T10:00\",\"tipo\":\"TRABALHO\"}}," +
+                "{\"metodo\":\"HEAD\",\"id\":" + id + "}," +
+                "{\"metodo\":\"GET\"}]}");
+
+        assertThat(lote.get("aplicado").asBoolean()).isTrue();
+        assertThat(statusDe(lote)).containsExactly(201, 403, 400, 400, 400);
+        assertThat(lote.at("/resultados/2/corpo/message").asText()).contains("titulo");
+        assertThat(titulos()).containsExactly("Novo", "Original");
+
+        JsonNode exclusao = executar(user1Token, "{\"atomico\":false,\"operacoes\":[" +
+                "{\"metodo\":\"DELETE\",\"id\":" + id + "}," +
+                "{\"metodo\":\"GET\",\"id\":" + id + "}]}");
+        assertThat(statusDe(exclusao)).containsExactly(204, 404);
+    }
+
+    @Test
+    @DisplayName("BATCH: Should reject empty or oversized batches")
+    void lote_Limites() throws Exception {
+        mockMvc.perform(post("/api/compromissos/batch")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operacoes\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        String seis = String.join(",", Collections.nCopies(6, "{\"metodo\":\"GET\",\"id\":1}"));
+        mockMvc.perform(post("/api/compromissos/batch")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operacoes\":[" + seis + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET: Should return a single compromisso with its ETag, only to its owner")
+    void buscarPorId() throws Exception {
+        mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.titulo").value("Original"))
+                .andExpect(jsonPath("$.username").value("user1"));
+
+        mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Bulk Create Integration Tests")
+class BulkCreateIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private Map<String, Object> item(String titulo) {
+        return Map.of(
+                "titulo", titulo,
+                "dataHora", LocalDateTime.now().plusDays(1).withNano(0).toString(),
+                "tipo", "TRABALHO",
+                "status", "PENDENTE",
+                "valor", 10);
+    }
+
+    private String lote(List<Map<String, Object>> itens) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("itens", itens));
+    }
+
+    @Test
+    @DisplayName("BULK: Should create every item for the authenticated user and return them with ids")
+    void bulk_CreatesAllItems() throws Exception {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            itens.add(item("Importado " + i));
+        }
+
+        mockMvc.perform(post("/api/compromissos/bulk")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote(itens)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(120)))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].titulo").value("Importado 0"))
+                .andExpect(jsonPath("$[119].titulo").value("Importado 119"))
+                .andExpect(jsonPath("$[119].username").value("user1"));
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(120)));
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("BULK: One invalid item should reject the whole batch")
+    void bulk_InvalidItemRejectsBatch() throws Exception {
+        List<Map<String, Object>> itens = new ArrayList<>();
+        itens.add(item("Válido"));
+        itens.add(item(""));
+
+        mockMvc.perform(post("/api/compromissos/bulk")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote(itens)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(compromissoRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("BULK: Should reject empty and oversized batches")
+    void bulk_RejectsEmptyAndOversized() throws Exception {
+        mockMvc.perform(post("/api/compromissos/bulk")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote(List.of())))
+                .andExpect(status().isBadRequest());
+
+        List<Map<String, Object>> itens = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            itens.add(item("Item " + i));
+        }
+        mockMvc.perform(post("/api/compromissos/bulk")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote(itens)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(compromissoRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Bulk Status Transition Integration Tests")
+class BulkStatusIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso p1;
+    private Compromisso p2;
+    private Compromisso concluido;
+    private Compromisso doUser2;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        p1 = createCompromisso(user1, "P1", "PERICIA", "PENDENTE", base);
+        p2 = createCompromisso(user1, "P2", "TRABALHO", "PENDENTE", base.plusDays(10));
+        concluido = createCompromisso(user1, "C1", "PERICIA", "CONCLUIDO", base.plusDays(1));
+        doUser2 = createCompromisso(user2, "Do user2", "PERICIA", "PENDENTE", base);
+        compromissoRepository.flush();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private Compromisso createCompromisso(Usuario user, String titulo, String tipo, String status, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo(tipo);
+        c.setStatus(status);
+        c.setUsuario(user);
+        return compromissoRepository.save(c);
+    }
+
+    private String statusNoBanco(Compromisso c) {
+        return compromissoRepository.findById(c.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    @DisplayName("BULK STATUS: Should update the user's ids and report only rows actually changed")
+    void bulkStatus_ByIds() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "status", "CONCLUIDO",
+                "ids", List.of(p1.getId(), concluido.getId(), doUser2.getId(), 999_999L)));
+
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atualizados").value(1));
+
+        assertThat(statusNoBanco(p1)).isEqualTo("CONCLUIDO");
+        assertThat(statusNoBanco(p2)).isEqualTo("PENDENTE");
+        assertThat(statusNoBanco(doUser2)).isEqualTo("PENDENTE");
+    }
+
+    @Test
+    @DisplayName("BULK STATUS: Should update every row matching a filter")
+    void bulkStatus_ByFilter() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "status", "EM_ANDAMENTO",
+                "filtro", Map.of("tipo", List.of("PERICIA"), "to", "2030-01-05T00:00:00")));
+
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.atualizados").value(2));
+
+        assertThat(statusNoBanco(p1)).isEqualTo("EM_ANDAMENTO");
+        assertThat(statusNoBanco(concluido)).isEqualTo("EM_ANDAMENTO");
+        assertThat(statusNoBanco(p2)).isEqualTo("PENDENTE");
+        assertThat(statusNoBanco(doUser2)).isEqualTo("PENDENTE");
+    }
+
+    @Test
+    @DisplayName("BULK STATUS: Updated rows should show up in the delta sync")
+    void bulkStatus_VisibleInChanges() throws Exception {
+        long versao = objectMapper.readTree(mockMvc.perform(get("/api/compromissos/changes")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andReturn().getResponse().getContentAsString()).get("versao").asLong();
+
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("status", "CONCLUIDO", "ids", List.of(p2.getId())))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/compromissos/changes")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("since", String.valueOf(versao)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alterados.length()").value(1))
+                .andExpect(jsonPath("$.alterados[0].id").value(p2.getId()))
+                .andExpect(jsonPath("$.alterados[0].status").value("CONCLUIDO"));
+    }
+
+    @Test
+    @DisplayName("BULK STATUS: Should require a status and either ids or a filter")
+    void bulkStatus_InvalidRequests() throws Exception {
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CONCLUIDO\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + p1.getId() + "]}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(statusNoBanco(p1)).isEqualTo("PENDENTE");
+    }
+}
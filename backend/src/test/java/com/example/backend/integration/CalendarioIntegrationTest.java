@@ -0,0 +1,208 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: o cache do feed é invalidado no commit das alterações
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Calendar Feed Integration Tests")
+class CalendarioIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        limpar();
+
+        for (String username : new String[] {"user1", "user2"}) {
+            Usuario usuario = new Usuario();
+            usuario.setUsername(username);
+            usuario.setPassword(passwordEncoder.encode("pass-" + username));
+            usuarioRepository.save(usuario);
+        }
+        user1Token = login("user1", "pass-user1");
+        user2Token = login("user2", "pass-user2");
+    }
+
+    @AfterEach
+    void limpar() {
+        compromissoRepository.deleteAll();
+        compromissoRemovidoRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void criar(String token, String titulo) throws Exception {
+        mockMvc.perform(post("/api/compromissos")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"" + titulo + "\",\"dataHora\":\"2030-02-01T10:00\","
+                                + "\"tipo\":\"TRABALHO\",\"status\":\"PENDENTE\",\"descricao\":\"Sala 2, bloco B\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private String gerarFeed(String token) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/calendario/token").header("Authorization", "Bearer " + token))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode feed = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertThat(feed.get("url").asText()).isEqualTo("/api/calendario/" + feed.get("token").asText() + ".ics");
+        return feed.get("url").asText();
+    }
+
+    @Test
+    @DisplayName("FEED: Should serve the user's events without a JWT")
+    void feed_ServesEvents() throws Exception {
+        criar(user1Token, "Audiência");
+        criar(user2Token, "Reunião do outro usuário");
+        String url = gerarFeed(user1Token);
+
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/calendar;charset=UTF-8"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "private, no-cache"))
+                .andReturn();
+
+        String ics = new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics).contains("BEGIN:VEVENT\r\n", "DTSTART:20300201T100000\r\n", "DURATION:PT60M\r\n",
+                "SUMMARY:Audiência\r\n", "DESCRIPTION:Sala 2\\, bloco B\r\n", "CATEGORIES:TRABALHO\r\n");
+        assertThat(ics).doesNotContain("Reunião do outro usuário");
+    }
+
+    @Test
+    @DisplayName("FEED: Should answer 304 to If-None-Match and If-Modified-Since until the data changes")
+    void feed_ConditionalGet() throws Exception {
+        criar(user1Token, "Audiência");
+        String url = gerarFeed(user1Token);
+        MvcResult primeiro = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        String etag = primeiro.getResponse().getHeader("ETag");
+        String lastModified = primeiro.getResponse().getHeader("Last-Modified");
+
+        mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get(url).header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+
+        // Garante outro segundo no Last-Modified da alteração
+        Thread.sleep(1100);
+        criar(user1Token, "Perícia");
+
+        MvcResult alterado = mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(alterado.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+        assertThat(alterado.getResponse().getContentAsString(StandardCharsets.UTF_8)).contains("SUMMARY:Perícia");
+        mockMvc.perform(get(url).header("If-Modified-Since", lastModified))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("FEED: Repeated polls should be answered from the cache, without reading the token again")
+    void feed_PollsUseCache() throws Exception {
+        String url = gerarFeed(user1Token);
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader("ETag");
+
+        // Alteração feita por fora da aplicação: o estado em cache continua valendo até expirar
+        jdbcTemplate.update("UPDATE users SET feed_token = NULL WHERE username = 'user1'");
+
+        mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("FEED: Rotating or revoking the token should disable the previous URL immediately")
+    void feed_RotateAndRevoke() throws Exception {
+        String antiga = gerarFeed(user1Token);
+        mockMvc.perform(get(antiga)).andExpect(status().isOk());
+
+        String nova = gerarFeed(user1Token);
+        assertThat(nova).isNotEqualTo(antiga);
+        mockMvc.perform(get(antiga)).andExpect(status().isNotFound());
+        mockMvc.perform(get(nova)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/calendario/token").header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get(nova)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("FEED: Unknown tokens and unauthenticated token management should be rejected")
+    void feed_Unauthorized() throws Exception {
+        mockMvc.perform(get("/api/calendario/inexistente.ics"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/calendario/token"))
+                .andExpect(status().is4xxClientError());
+        mockMvc.perform(get("/api/calendario/token"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.backend.integration;
+
+import com.example.backend.entity.CompromissoRemovido;
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.CompromissoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Delta Sync Integration Tests")
+class ChangesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRemovidoRepository.deleteAll();
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        Compromisso existente = new Compromisso();
+        existente.setTitulo("Existente");
+        existente.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        existente.setTipo("OUTROS");
+        existente.setUsuario(user1);
+        compromissoRepository.save(existente);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private JsonNode changes(String token, Long since) throws Exception {
+        var request = get("/api/compromissos/changes").header("Authorization", "Bearer " + token);
+        if (since != null) {
+            request.param("since", since.toString());
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private long create(String token, String titulo) throws Exception {
+        String json = "{\"titulo\":\"" + titulo + "\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\",\"status\":\"PENDENTE\"}";
+        MvcResult result = mockMvc.perform(post("/api/compromissos")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    @DisplayName("SYNC: Without since should return a full snapshot flagged as reset")
+    void changes_WithoutSince_ReturnsSnapshot() throws Exception {
+        JsonNode body = changes(user1Token, null);
+
+        assertThat(body.get("reset").asBoolean()).isTrue();
+        assertThat(body.get("versao").asLong()).isZero();
+        assertThat(body.get("alterados")).hasSize(1);
+        assertThat(body.get("alterados").get(0).get("titulo").asText()).isEqualTo("Existente");
+        assertThat(body.get("removidos")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SYNC: Should return only items created, updated or deleted after since")
+    void changes_ReturnsOnlyDelta() throws Exception {
+        long versao = changes(user1Token, null).get("versao").asLong();
+
+        long criado = create(user1Token, "Novo");
+        long alterado = create(user1Token, "Para alterar");
+        long removido = create(user1Token, "Para remover");
+
+        mockMvc.perform(put("/api/compromissos/" + alterado)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Alterado\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\",\"status\":\"CONCLUIDO\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/compromissos/" + removido)
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+
+        JsonNode body = changes(user1Token, versao);
+
+        assertThat(body.get("reset").asBoolean()).isFalse();
+        assertThat(body.get("versao").asLong()).isEqualTo(versao + 5);
+        assertThat(body.get("alterados")).hasSize(2);
+        assertThat(body.get("alterados").get(0).get("id").asLong()).isEqualTo(criado);
+        assertThat(body.get("alterados").get(1).get("id").asLong()).isEqualTo(alterado);
+        assertThat(body.get("alterados").get(1).get("titulo").asText()).isEqualTo("Alterado");
+        assertThat(body.get("removidos")).hasSize(1);
+        assertThat(body.get("removidos").get(0).asLong()).isEqualTo(removido);
+
+        JsonNode vazio = changes(user1Token, body.get("versao").asLong());
+        assertThat(vazio.get("alterados")).isEmpty();
+        assertThat(vazio.get("removidos")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SYNC: Versions and tombstones should be isolated per user")
+    void changes_IsolatedPerUser() throws Exception {
+        long removido = create(user1Token, "Do user1");
+        mockMvc.perform(delete("/api/compromissos/" + removido)
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+
+        JsonNode body = changes(user2Token, 0L);
+
+        assertThat(body.get("versao").asLong()).isZero();
+        assertThat(body.get("alterados")).isEmpty();
+        assertThat(body.get("removidos")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("SYNC: Should reset clients whose version is ahead of the server")
+    void changes_SinceAheadOfServer_Resets() throws Exception {
+        JsonNode body = changes(user1Token, 99L);
+
+        assertThat(body.get("reset").asBoolean()).isTrue();
+        assertThat(body.get("alterados")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("SYNC: Should reset clients older than pruned tombstones")
+    void changes_AfterTombstonePrune_Resets() throws Exception {
+        long removido = create(user1Token, "Antigo");
+        mockMvc.perform(delete("/api/compromissos/" + removido)
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+
+        CompromissoRemovido tombstone = compromissoRemovidoRepository.findAll().get(0);
+        tombstone.setRemovidoEm(Instant.now().minus(365, ChronoUnit.DAYS));
+        compromissoRemovidoRepository.saveAndFlush(tombstone);
+
+        compromissoService.limparRemovidos();
+
+        assertThat(compromissoRemovidoRepository.count()).isZero();
+        assertThat(changes(user1Token, 0L).get("reset").asBoolean()).isTrue();
+        assertThat(changes(user1Token, 2L).get("reset").asBoolean()).isFalse();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: as gravações agrupadas rodam em transações próprias,
+// então os dados são removidos ao fim de cada teste
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "compromisso.coalescencia.janela-ms=60000")
+@DisplayName("PUT Coalescing Integration Tests")
+class CoalescingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        limpar();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("Original");
+        doUser1.setDescricao("Descrição original");
+        doUser1.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        doUser1.setTipo("PERICIA");
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    @AfterEach
+    void limpar() {
+        compromissoRepository.deleteAll();
+        compromissoRemovidoRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private org.springframework.test.web.servlet.ResultActions atualizar(String token, String titulo, String ifMatch) throws Exception {
+        var request = put("/api/compromissos/" + doUser1.getId())
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"titulo\":\"" + titulo + "\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\"}");
+        if (ifMatch != null) {
+            request.header("If-Match", ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private Compromisso salvo() {
+        return compromissoRepository.findById(doUser1.getId()).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("COALESCE: A burst of PUTs should be held back, and a read should see the last one")
+    void burst_ReadYourWrites() throws Exception {
+        atualizar(user1Token, "V1", null).andExpect(status().isOk()).andExpect(header().string("ETag", "\"1\""));
+        atualizar(user1Token, "V2", null).andExpect(status().isOk()).andExpect(header().string("ETag", "\"2\""));
+        atualizar(user1Token, "V3", null).andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.titulo").value("V3"));
+
+        // Ainda pendente: só o primeiro PUT chegou ao banco
+        assertThat(salvo().getTitulo()).isEqualTo("V1");
+
+        mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.titulo").value("V3"));
+        assertThat(salvo().getVersao()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("COALESCE: A PUT with If-Match should not be held back")
+    void ifMatch_GravaNaHora() throws Exception {
+        atualizar(user1Token, "V1", null).andExpect(status().isOk());
+        atualizar(user1Token, "V2", null).andExpect(header().string("ETag", "\"2\""));
+
+        atualizar(user1Token, "V3", "\"2\"").andExpect(status().isOk()).andExpect(header().string("ETag", "\"3\""));
+        assertThat(salvo().getTitulo()).isEqualTo("V3");
+        assertThat(salvo().getVersao()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("COALESCE: A pending PUT that cannot be written should be reported to the next request for the id")
+    void falhaNaGravacao_Informada() throws Exception {
+        atualizar(user1Token, "V1", null).andExpect(status().isOk());
+        atualizar(user1Token, "V2", null).andExpect(status().isOk());
+        // Alteração por fora da aplicação: o UPDATE agrupado (versão 1) não confere mais
+        jdbcTemplate.update("UPDATE compromisso SET versao = versao + 1 WHERE id = ?", doUser1.getId());
+
+        atualizar(user1Token, "V3", "\"2\"")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("não foi gravada")));
+        mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("V1"));
+
+        // Fechada por uma leitura da lista, a falha vai para a próxima requisição do id
+        atualizar(user1Token, "V4", null).andExpect(status().isOk());
+        atualizar(user1Token, "V5", null).andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE compromisso SET versao = versao + 1 WHERE id = ?", doUser1.getId());
+        mockMvc.perform(get("/api/compromissos").header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isConflict());
+        assertThat(salvo().getTitulo()).isEqualTo("V4");
+    }
+
+    @Test
+    @DisplayName("COALESCE: Other writes of the same user should apply after the pending PUT")
+    void outraEscrita_DescarregaAntes() throws Exception {
+        atualizar(user1Token, "V1", null).andExpect(status().isOk());
+        atualizar(user1Token, "V2", null).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"2\""))
+                .andExpect(status().isNoContent());
+        assertThat(compromissoRepository.findById(doUser1.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("COALESCE: Stale If-Match and foreign PUTs should still be rejected inside the window")
+    void janela_Rejeicoes() throws Exception {
+        atualizar(user1Token, "V1", null).andExpect(status().isOk());
+        atualizar(user1Token, "V2", "\"0\"").andExpect(status().isPreconditionFailed());
+        atualizar(user2Token, "Intruso", null).andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(jsonPath("$.titulo").value("V1"));
+    }
+}
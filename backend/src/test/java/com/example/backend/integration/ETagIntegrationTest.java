@@ -0,0 +1,199 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Conditional GET (ETag) Integration Tests")
+class ETagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        Compromisso c = new Compromisso();
+        c.setTitulo("Existente");
+        c.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        c.setTipo("OUTROS");
+        c.setUsuario(user1);
+        compromissoRepository.save(c);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private String etag(String url, String token) throws Exception {
+        return mockMvc.perform(get(url).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "private, no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private long create(String token) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/compromissos")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Novo\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\",\"status\":\"PENDENTE\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    @DisplayName("ETAG: List should answer 304 with an empty body for a matching If-None-Match")
+    void list_MatchingEtag_NotModified() throws Exception {
+        String etag = etag("/api/compromissos", user1Token);
+        assertThat(etag).startsWith("\"").endsWith("\"");
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("ETAG: Create and delete should change the list ETag")
+    void list_EtagChangesAfterWrites() throws Exception {
+        String inicial = etag("/api/compromissos", user1Token);
+
+        long id = create(user1Token);
+        String aposCriar = etag("/api/compromissos", user1Token);
+        assertThat(aposCriar).isNotEqualTo(inicial);
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", inicial))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        mockMvc.perform(delete("/api/compromissos/" + id)
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+        assertThat(etag("/api/compromissos", user1Token)).isNotEqualTo(aposCriar);
+    }
+
+    @Test
+    @DisplayName("ETAG: ETags should never match across users")
+    void list_EtagIsPerUser() throws Exception {
+        String etagUser1 = etag("/api/compromissos", user1Token);
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user2Token)
+                        .header("If-None-Match", etagUser1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("ETAG: Stats with an explicit reference time should be revalidated by version")
+    void stats_MatchingEtag_NotModified() throws Exception {
+        String url = "/api/compromissos/stats?agora=2029-01-01T00:00:00";
+        String etag = etag(url, user1Token);
+
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        create(user1Token);
+        mockMvc.perform(get(url)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    @DisplayName("ETAG: Export should answer 304 without writing the CSV")
+    void export_MatchingEtag_NotModified() throws Exception {
+        String etag = etag("/api/compromissos/export?format=csv", user1Token);
+
+        mockMvc.perform(get("/api/compromissos/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/compromissos/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-None-Match", "\"outra-versao\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Existente")));
+    }
+}
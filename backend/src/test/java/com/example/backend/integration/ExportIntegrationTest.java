@@ -17,8 +17,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -92,9 +96,13 @@ class ExportIntegrationTest {
     }
 
     private void createCompromisso(Usuario user, String titulo, String tipo) {
+        createCompromisso(user, titulo, tipo, LocalDateTime.now());
+    }
+
+    private void createCompromisso(Usuario user, String titulo, String tipo, LocalDateTime dataHora) {
         Compromisso c = new Compromisso();
         c.setTitulo(titulo);
-        c.setDataHora(LocalDateTime.now());
+        c.setDataHora(dataHora);
         c.setTipo(tipo);
         c.setUsuario(user);
         compromissoRepository.save(c);
@@ -141,4 +149,62 @@ class ExportIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string(containsString("'=1+1"))); // Should contain the escaped prefix
     }
+
+    @Test
+    @DisplayName("EXPORT: Should apply tipo and date range filters")
+    void export_Filters() throws Exception {
+        createCompromisso(user1, "Pericia Janeiro", "PERICIA", LocalDateTime.of(2030, 1, 10, 9, 0));
+        createCompromisso(user1, "Pericia Marco", "PERICIA", LocalDateTime.of(2030, 3, 10, 9, 0));
+        createCompromisso(user1, "Trabalho Janeiro", "TRABALHO", LocalDateTime.of(2030, 1, 20, 9, 0));
+
+        String csv = mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("tipo", "PERICIA")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(csv.split("\n")).hasSize(2);
+        assertThat(csv).contains("Pericia Janeiro,2030-01-10T09:00,PERICIA");
+    }
+
+    @Test
+    @DisplayName("EXPORT: Should reject an empty date range")
+    void export_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-02-01T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("EXPORT: Should gzip the CSV when the client accepts it")
+    void export_Gzip() throws Exception {
+        String plano = mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult result = mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", containsString("Accept-Encoding")))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plano);
+        }
+        // ETag por codificação: o CSV compactado não revalida o não compactado
+        assertThat(result.getResponse().getHeader("ETag")).endsWith("-gzip\"");
+
+        mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
 }
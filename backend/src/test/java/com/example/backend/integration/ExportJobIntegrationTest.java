@@ -0,0 +1,311 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRemovidoRepository;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.RefreshTokenRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.ExportacaoJobService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: o job lê os compromissos em outra thread, então os dados precisam
+// estar gravados; são removidos ao fim de cada teste
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Export Job Integration Tests")
+class ExportJobIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CompromissoRemovidoRepository compromissoRemovidoRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ExportacaoJobService exportacaoJobService;
+
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        limpar();
+
+        Usuario user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        for (int i = 0; i < 20; i++) {
+            Compromisso c = new Compromisso();
+            c.setTitulo("Compromisso " + i);
+            c.setDescricao(i % 2 == 0 ? "Descrição, com vírgula" : null);
+            c.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0).plusDays(i));
+            c.setTipo(i % 2 == 0 ? "PERICIA" : "TRABALHO");
+            c.setUsuario(user1);
+            compromissoRepository.save(c);
+        }
+    }
+
+    @AfterEach
+    void limpar() {
+        compromissoRepository.deleteAll();
+        compromissoRemovidoRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private String criar(String... filtro) throws Exception {
+        var request = post("/api/compromissos/export/jobs").header("Authorization", "Bearer " + user1Token);
+        for (int i = 0; i < filtro.length; i += 2) {
+            request.param(filtro[i], filtro[i + 1]);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", org.hamcrest.Matchers.startsWith("/api/compromissos/export/jobs/")))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private JsonNode aguardar(String id) throws Exception {
+        for (int tentativa = 0; tentativa < 200; tentativa++) {
+            MvcResult result = mockMvc.perform(get("/api/compromissos/export/jobs/" + id)
+                            .header("Authorization", "Bearer " + user1Token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode job = objectMapper.readTree(result.getResponse().getContentAsString());
+            String situacao = job.get("status").asText();
+            if (situacao.equals("CONCLUIDO") || situacao.equals("FALHOU")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("A exportação " + id + " não terminou");
+    }
+
+    private MvcResult baixar(String id, String range, String ifRange) throws Exception {
+        var request = get("/api/compromissos/export/jobs/" + id + "/arquivo")
+                .header("Authorization", "Bearer " + user1Token);
+        if (range != null) {
+            request.header("Range", range);
+        }
+        if (ifRange != null) {
+            request.header("If-Range", ifRange);
+        }
+        return mockMvc.perform(request).andReturn();
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: Should write the same CSV as the synchronous export and serve byte ranges")
+    void job_DownloadWithRanges() throws Exception {
+        String id = criar("tipo", "PERICIA");
+        JsonNode job = aguardar(id);
+        byte[] esperado = mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("tipo", "PERICIA"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(job.get("status").asText()).isEqualTo("CONCLUIDO");
+        assertThat(job.get("tamanho").asLong()).isEqualTo(esperado.length);
+        assertThat(job.get("bytesEscritos").asLong()).isEqualTo(esperado.length);
+        assertThat(job.get("download").asText()).isEqualTo("/api/compromissos/export/jobs/" + id + "/arquivo");
+        assertThat(job.get("expiraEm").isNull()).isFalse();
+
+        MvcResult inteiro = baixar(id, null, null);
+        assertThat(inteiro.getResponse().getStatus()).isEqualTo(200);
+        assertThat(inteiro.getResponse().getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(inteiro.getResponse().getContentAsByteArray()).isEqualTo(esperado);
+        assertThat(new String(esperado, StandardCharsets.UTF_8).split("\n")).hasSize(11);
+
+        String etag = inteiro.getResponse().getHeader("ETag");
+        MvcResult parte = baixar(id, "bytes=10-19", etag);
+        assertThat(parte.getResponse().getStatus()).isEqualTo(206);
+        assertThat(parte.getResponse().getHeader("Content-Range")).isEqualTo("bytes 10-19/" + esperado.length);
+        assertThat(parte.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(esperado, 10, 20));
+
+        // Retomada: do byte 100 até o fim, e os últimos 5 bytes
+        MvcResult resto = baixar(id, "bytes=100-", null);
+        assertThat(resto.getResponse().getStatus()).isEqualTo(206);
+        assertThat(resto.getResponse().getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(esperado, 100, esperado.length));
+        MvcResult sufixo = baixar(id, "bytes=-5", null);
+        assertThat(sufixo.getResponse().getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(esperado, esperado.length - 5, esperado.length));
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: Unsatisfiable, stale or malformed ranges should follow RFC 9110")
+    void job_RangeEdgeCases() throws Exception {
+        String id = criar();
+        long tamanho = aguardar(id).get("tamanho").asLong();
+
+        MvcResult foraDoArquivo = baixar(id, "bytes=" + tamanho + "-", null);
+        assertThat(foraDoArquivo.getResponse().getStatus()).isEqualTo(416);
+        assertThat(foraDoArquivo.getResponse().getHeader("Content-Range")).isEqualTo("bytes */" + tamanho);
+
+        MvcResult outroArquivo = baixar(id, "bytes=0-9", "\"outro\"");
+        assertThat(outroArquivo.getResponse().getStatus()).isEqualTo(200);
+        assertThat(outroArquivo.getResponse().getContentAsByteArray()).hasSize((int) tamanho);
+
+        MvcResult malformado = baixar(id, "linhas=1-2", null);
+        assertThat(malformado.getResponse().getStatus()).isEqualTo(200);
+        assertThat(malformado.getResponse().getContentAsByteArray()).hasSize((int) tamanho);
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: Other users should not see the job or its file")
+    void job_OtherUser() throws Exception {
+        String id = criar();
+        aguardar(id);
+
+        mockMvc.perform(get("/api/compromissos/export/jobs/" + id).header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/compromissos/export/jobs/" + id + "/arquivo").header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: Expired files should be removed")
+    void job_Ttl() throws Exception {
+        String id = criar();
+        aguardar(id);
+
+        ReflectionTestUtils.setField(exportacaoJobService, "ttlMinutos", 0L);
+        try {
+            exportacaoJobService.limparExpirados();
+        } finally {
+            ReflectionTestUtils.setField(exportacaoJobService, "ttlMinutos", 60L);
+        }
+
+        mockMvc.perform(get("/api/compromissos/export/jobs/" + id).header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNotFound());
+        assertThat(baixar(id, null, null).getResponse().getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: A file being downloaded should not expire, and each download should restart the TTL")
+    void job_TtlDuranteDownload() throws Exception {
+        String id = criar();
+        Instant concluido = Instant.parse(aguardar(id).get("expiraEm").asText());
+        Thread.sleep(5);
+        assertThat(baixar(id, null, null).getResponse().getStatus()).isEqualTo(200);
+        JsonNode acessado = objectMapper.readTree(mockMvc.perform(get("/api/compromissos/export/jobs/" + id)
+                .header("Authorization", "Bearer " + user1Token)).andReturn().getResponse().getContentAsString());
+        assertThat(Instant.parse(acessado.get("expiraEm").asText())).isAfter(concluido);
+
+        // Download em andamento (o sendfile do Tomcat lê o arquivo depois do controller)
+        ExportacaoJobService.Arquivo arquivo = exportacaoJobService.arquivo(id, "user1");
+        ReflectionTestUtils.setField(exportacaoJobService, "ttlMinutos", 0L);
+        try {
+            exportacaoJobService.limparExpirados();
+            assertThat(Files.exists(arquivo.caminho())).isTrue();
+
+            exportacaoJobService.liberar(arquivo);
+            exportacaoJobService.limparExpirados();
+            assertThat(Files.exists(arquivo.caminho())).isFalse();
+        } finally {
+            ReflectionTestUtils.setField(exportacaoJobService, "ttlMinutos", 60L);
+        }
+        assertThat(baixar(id, null, null).getResponse().getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: The disk quota should fail oversized jobs and reject new ones when exhausted")
+    void job_Quota() throws Exception {
+        // Arquivos de outros testes ainda não expirados contam na cota
+        long emUso = ((AtomicLong) ReflectionTestUtils.getField(exportacaoJobService, "usoDisco")).get();
+        ReflectionTestUtils.setField(exportacaoJobService, "cota", DataSize.ofBytes(emUso + 100));
+        try {
+            String id = criar();
+            JsonNode job = aguardar(id);
+            assertThat(job.get("status").asText()).isEqualTo("FALHOU");
+            assertThat(job.get("erro").asText()).contains("Cota");
+            assertThat(job.get("bytesEscritos").asLong()).isZero();
+            assertThat(((AtomicLong) ReflectionTestUtils.getField(exportacaoJobService, "usoDisco")).get())
+                    .isEqualTo(emUso);
+            mockMvc.perform(get("/api/compromissos/export/jobs/" + id + "/arquivo")
+                            .header("Authorization", "Bearer " + user1Token))
+                    .andExpect(status().isConflict());
+
+            ReflectionTestUtils.setField(exportacaoJobService, "cota", DataSize.ofBytes(emUso));
+            mockMvc.perform(post("/api/compromissos/export/jobs").header("Authorization", "Bearer " + user1Token))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            ReflectionTestUtils.setField(exportacaoJobService, "cota", DataSize.ofGigabytes(1));
+        }
+    }
+
+    @Test
+    @DisplayName("EXPORT JOB: Invalid filters should be rejected when the job is created")
+    void job_InvalidFilter() throws Exception {
+        mockMvc.perform(post("/api/compromissos/export/jobs")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-02-01T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Multi-Criteria Filter Integration Tests")
+class FilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        createCompromisso(user1, "Perícia urgente", "PERICIA", "PENDENTE", true, 500.0, base);
+        createCompromisso(user1, "Perícia normal", "PERICIA", "CONCLUIDO", false, 300.0, base.plusDays(1));
+        createCompromisso(user1, "Perícia cara", "PERICIA", "PENDENTE", true, 5000.0, base.plusDays(2));
+        createCompromisso(user1, "Trabalho urgente", "TRABALHO", "EM_ANDAMENTO", true, 0.0, base.plusDays(3));
+        createCompromisso(user1, "Legado sem urgência", "FAMILIA", "PENDENTE", null, 0.0, base.plusDays(4));
+        createCompromisso(user2, "Perícia do user2", "PERICIA", "PENDENTE", true, 500.0, base);
+        compromissoRepository.flush();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String titulo, String tipo, String status, Boolean urgente,
+                                   Double valor, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo(tipo);
+        c.setStatus(status);
+        c.setUrgente(urgente);
+        c.setValor(valor);
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    // Última consulta de leitura de compromissos executada (a listagem)
+    private String ultimaConsultaCompromissos() {
+        List<String> consultas = SqlCapturada.SQL.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains("from compromisso"))
+                .toList();
+        assertThat(consultas).isNotEmpty();
+        return consultas.get(consultas.size() - 1);
+    }
+
+    @Test
+    @DisplayName("FILTER: Should combine filters and push every predicate into the SQL WHERE clause")
+    void filter_CombinedPredicatesReachSql() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("tipo", "PERICIA")
+                        .param("status", "PENDENTE")
+                        .param("urgente", "true")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-02-01T00:00:00")
+                        .param("valorMin", "100")
+                        .param("valorMax", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titulo").value("Perícia urgente"))
+                .andExpect(jsonPath("$[0].username").value("user1"));
+
+        String where = ultimaConsultaCompromissos().split(" where ", 2)[1];
+        assertThat(where)
+                .contains("username=?")
+                .contains("tipo in")
+                .contains("status in")
+                .contains("urgente")
+                .contains("data_hora>=?")
+                .contains("data_hora<?")
+                .contains("valor>=?")
+                .contains("valor<=?");
+    }
+
+    @Test
+    @DisplayName("FILTER: Should accept repeated parameters as IN lists")
+    void filter_MultipleTipos() throws Exception {
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("tipo", "TRABALHO")
+                        .param("tipo", "FAMILIA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].titulo").value("Trabalho urgente"))
+                .andExpect(jsonPath("$[1].titulo").value("Legado sem urgência"));
+    }
+
+    @Test
+    @DisplayName("FILTER: urgente=false should include rows with a null flag")
+    void filter_NotUrgentIncludesNull() throws Exception {
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("urgente", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].titulo").value("Perícia normal"))
+                .andExpect(jsonPath("$[1].titulo").value("Legado sem urgência"));
+    }
+
+    @Test
+    @DisplayName("FILTER: Should only return the authenticated user's items")
+    void filter_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user2Token)
+                        .param("tipo", "PERICIA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].titulo").value("Perícia do user2"));
+    }
+
+    @Test
+    @DisplayName("FILTER: Without filters the list should be unchanged")
+    void filter_NoFilters_ReturnsAll() throws Exception {
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)));
+    }
+
+    @Test
+    @DisplayName("FILTER: Should reject invalid ranges and unknown enum values")
+    void filter_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("from", "2030-02-01T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("valorMin", "10")
+                        .param("valorMax", "1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("tipo", "INEXISTENTE"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.backend.integration;
+
+import com.example.backend.entity.ChaveIdempotencia;
+import com.example.backend.model.Compromisso;
+import com.example.backend.repository.ChaveIdempotenciaRepository;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Idempotency-Key Integration Tests")
+class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        chaveIdempotenciaRepository.deleteAll();
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final String CORPO =
+            "{\"titulo\":\"Reunião\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\"}";
+
+    private org.springframework.test.web.servlet.ResultActions criar(String token, String chave, String corpo) throws Exception {
+        return mockMvc.perform(post("/api/compromissos")
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", chave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo));
+    }
+
+    private List<String> sqlCompromisso() {
+        return SqlCapturada.SQL.stream().filter(sql -> sql.contains("compromisso")).toList();
+    }
+
+    @Test
+    @DisplayName("IDEMPOTENCY: A repeated key should return the original response without touching compromisso")
+    void repeatedKey_ReplaysOriginal() throws Exception {
+        MvcResult original = criar(user1Token, "chave-1", CORPO)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        long id = objectMapper.readTree(original.getResponse().getContentAsString()).get("id").asLong();
+
+        SqlCapturada.SQL.clear();
+        criar(user1Token, "chave-1", CORPO)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.titulo").value("Reunião"));
+
+        assertThat(sqlCompromisso()).isEmpty();
+        assertThat(compromissoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("IDEMPOTENCY: A key stored in the table should be replayed even when not cached")
+    void storedKey_ReplaysFromTable() throws Exception {
+        chaveIdempotenciaRepository.saveAndFlush(new ChaveIdempotencia(null, "user1", "de-outra-instancia",
+                sha256(CORPO), "{\"id\":4242,\"titulo\":\"Reunião\",\"versao\":0}", Instant.now()));
+
+        SqlCapturada.SQL.clear();
+        criar(user1Token, "de-outra-instancia", CORPO)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(4242));
+
+        assertThat(sqlCompromisso()).isEmpty();
+        assertThat(compromissoRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("IDEMPOTENCY: An expired key should allow a new creation")
+    void expiredKey_CreatesAgain() throws Exception {
+        chaveIdempotenciaRepository.saveAndFlush(new ChaveIdempotencia(null, "user1", "vencida",
+                sha256(CORPO), "{\"id\":4242}", Instant.now().minus(25, ChronoUnit.HOURS)));
+
+        criar(user1Token, "vencida", CORPO)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        assertThat(compromissoRepository.count()).isEqualTo(1);
+        assertThat(chaveIdempotenciaRepository.findByUsernameAndChave("user1", "vencida").orElseThrow().getCriadaEm())
+                .isAfter(Instant.now().minus(1, ChronoUnit.HOURS));
+    }
+
+    @Test
+    @DisplayName("IDEMPOTENCY: Keys are per user; reusing a key with another body gives 400")
+    void scopeAndMismatch() throws Exception {
+        criar(user1Token, "compartilhada", CORPO).andExpect(status().isCreated());
+        criar(user2Token, "compartilhada", CORPO)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        criar(user1Token, "compartilhada", CORPO.replace("Reunião", "Outra"))
+                .andExpect(status().isBadRequest());
+        criar(user1Token, "x".repeat(256), CORPO).andExpect(status().isBadRequest());
+
+        assertThat(compromissoRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("IDEMPOTENCY: The largest escaped response should be stored and replayed intact")
+    void largestResponse_StoredAndReplayed() throws Exception {
+        // Cada caractere de controle é serializado como escape Unicode: seis caracteres no JSON
+        String descricao = "\\u0001".repeat(500);
+        String corpo = "{\"titulo\":\"T" + "\\u0002".repeat(99) + "\",\"descricao\":\"" + descricao
+                + "\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\"}";
+
+        MvcResult original = criar(user1Token, "longa", corpo)
+                .andExpect(status().isCreated())
+                .andReturn();
+        String resposta = chaveIdempotenciaRepository.findByUsernameAndChave("user1", "longa").orElseThrow().getResposta();
+        assertThat(resposta.length()).isGreaterThan(3600);
+
+        MvcResult repetida = criar(user1Token, "longa", corpo)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+        assertThat(repetida.getResponse().getContentAsString()).isEqualTo(original.getResponse().getContentAsString());
+        assertThat(objectMapper.readTree(repetida.getResponse().getContentAsString()).get("descricao").asText())
+                .isEqualTo("\u0001".repeat(500));
+    }
+
+    // Mesmo hash do serviço: SHA-256 do DTO serializado pelo ObjectMapper da aplicação
+    private String sha256(String corpo) throws Exception {
+        var dto = objectMapper.readValue(corpo, com.example.backend.dto.CompromissoRequestDTO.class);
+        byte[] digest = java.security.MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(dto).getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return java.util.HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = "compromisso.importacao.tamanho-transacao=3")
+@DisplayName("CSV Import Integration Tests")
+class ImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("=Soma, com vírgula");
+        doUser1.setDescricao("Diz \"oi\"\nem duas linhas");
+        doUser1.setDataHora(LocalDateTime.of(2019, 5, 10, 14, 30));
+        doUser1.setTipo("FINANCEIRO");
+        doUser1.setStatus("CONCLUIDO");
+        doUser1.setValor(1234.5);
+        doUser1.setUrgente(true);
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final String CABECALHO = "id,titulo,dataHora,tipo,status,valor,urgente,descricao\n";
+
+    private org.springframework.test.web.servlet.ResultActions importar(String token, String csv) throws Exception {
+        return mockMvc.perform(post("/api/compromissos/import")
+                .header("Authorization", "Bearer " + token)
+                .contentType("text/csv")
+                .content(csv.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+    }
+
+    private List<Compromisso> doUsuario(String username) {
+        return compromissoRepository.findByUsuarioUsername(username).stream()
+                .sorted(java.util.Comparator.comparing(Compromisso::getId))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("IMPORT: An exported file should import back with the same values (past dates allowed)")
+    void exportThenImport_RoundTrip() throws Exception {
+        String csv = mockMvc.perform(get("/api/compromissos/export")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(java.nio.charset.StandardCharsets.UTF_8);
+
+        importar(user2Token, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(1))
+                .andExpect(jsonPath("$.rejeitados").value(0));
+
+        List<Compromisso> importados = doUsuario("user2");
+        assertThat(importados).hasSize(1);
+        Compromisso c = importados.get(0);
+        assertThat(c.getId()).isNotEqualTo(doUser1.getId());
+        assertThat(c.getTitulo()).isEqualTo(doUser1.getTitulo());
+        assertThat(c.getDescricao()).isEqualTo(doUser1.getDescricao());
+        assertThat(c.getDataHora()).isEqualTo(doUser1.getDataHora());
+        assertThat(c.getTipo()).isEqualTo("FINANCEIRO");
+        assertThat(c.getStatus()).isEqualTo("CONCLUIDO");
+        assertThat(c.getValor()).isEqualTo(1234.5);
+        assertThat(c.isUrgente()).isTrue();
+    }
+
+    @Test
+    @DisplayName("IMPORT: Invalid rows should be reported by line while valid rows are imported")
+    void invalidRows_Reported() throws Exception {
+        String csv = CABECALHO
+                + ",Válido 1,2030-01-01T09:00,TRABALHO,,,,\"descrição\nem duas linhas\"\n"
+                + ",,2030-01-01T09:00,TRABALHO,,,,\n"
+                + ",Tipo ruim,2030-01-01T09:00,VIAGEM,,,,\n"
+                + ",Data ruim,01/01/2030,TRABALHO,,,,\n"
+                + ",Valor negativo,2030-01-01T09:00,TRABALHO,,-5,,\n"
+                + "\n"
+                + ",Válido 2,2030-01-02T09:00:00,FAMILIA,EM_ANDAMENTO,10.25,false,\n";
+
+        importar(user1Token, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(2))
+                .andExpect(jsonPath("$.rejeitados").value(4))
+                .andExpect(jsonPath("$.erros[0].linha").value(4))
+                .andExpect(jsonPath("$.erros[0].mensagem").value(org.hamcrest.Matchers.startsWith("titulo:")))
+                .andExpect(jsonPath("$.erros[1].linha").value(5))
+                .andExpect(jsonPath("$.erros[1].mensagem").value(org.hamcrest.Matchers.startsWith("tipo:")))
+                .andExpect(jsonPath("$.erros[2].linha").value(6))
+                .andExpect(jsonPath("$.erros[3].linha").value(7))
+                .andExpect(jsonPath("$.erros[3].mensagem").value(org.hamcrest.Matchers.startsWith("valor:")));
+
+        assertThat(doUsuario("user1")).extracting(Compromisso::getTitulo)
+                .containsExactly("=Soma, com vírgula", "Válido 1", "Válido 2");
+    }
+
+    @Test
+    @DisplayName("IMPORT: Rows should be written in chunks, one sync version per chunk")
+    void chunks_OneVersionEach() throws Exception {
+        long versaoAntes = usuarioRepository.findByUsername("user1").orElseThrow().getVersaoDados();
+        StringBuilder csv = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 10; i++) {
+            csv.append(",Item ").append(i).append(",2030-01-01T09:00,OUTROS,,,,\n");
+        }
+
+        importar(user1Token, csv.toString())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(10));
+
+        // 10 linhas em blocos de 3: quatro transações
+        long versaoDepois = usuarioRepository.findByUsername("user1").orElseThrow().getVersaoDados();
+        assertThat(versaoDepois).isEqualTo(versaoAntes + 4);
+        assertThat(doUsuario("user1").stream()
+                .filter(c -> c.getTitulo().startsWith("Item "))
+                .map(Compromisso::getVersaoAlteracao)
+                .distinct()).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("IMPORT: A broken quote should stop the import after the rows already read")
+    void unterminatedQuote_Stops() throws Exception {
+        String csv = CABECALHO
+                + ",Antes,2030-01-01T09:00,OUTROS,,,,\n"
+                + ",\"Sem fim,2030-01-01T09:00,OUTROS,,,,\n"
+                + ",Depois,2030-01-01T09:00,OUTROS,,,,\n";
+
+        importar(user1Token, csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(1))
+                .andExpect(jsonPath("$.rejeitados").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(3));
+    }
+
+    @Test
+    @DisplayName("IMPORT: Empty files and headers without the required columns should give 400")
+    void badHeader_BadRequest() throws Exception {
+        importar(user1Token, "").andExpect(status().isBadRequest());
+        importar(user1Token, "titulo,descricao\nA,B\n").andExpect(status().isBadRequest());
+        importar(user2Token, "\uFEFFtitulo,dataHora,tipo\nComBOM,2030-01-01T09:00,OUTROS\n")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(1));
+    }
+}
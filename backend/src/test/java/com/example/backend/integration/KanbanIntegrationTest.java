@@ -0,0 +1,183 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Kanban Board Integration Tests")
+class KanbanIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            createCompromisso(user1, "P" + i, "PENDENTE", base.plusDays(5 - i));
+        }
+        createCompromisso(user1, "C0", "CONCLUIDO", base);
+        createCompromisso(user1, "C1", "CONCLUIDO", base.plusDays(1));
+        createCompromisso(user1, "E0", "EM_ANDAMENTO", base);
+        createCompromisso(user2, "Outro usuario", "PENDENTE", base);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String titulo, String status, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo("OUTROS");
+        c.setStatus(status);
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    @Test
+    @DisplayName("KANBAN: Should return every status column with top N items and totals")
+    void kanban_ColumnsWithLimitAndTotals() throws Exception {
+        mockMvc.perform(get("/api/compromissos/kanban")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.colunas", hasSize(4)))
+                .andExpect(jsonPath("$.colunas[0].status").value("PENDENTE"))
+                .andExpect(jsonPath("$.colunas[0].total").value(5))
+                .andExpect(jsonPath("$.colunas[0].itens", hasSize(2)))
+                .andExpect(jsonPath("$.colunas[0].itens[0].titulo").value("P4"))
+                .andExpect(jsonPath("$.colunas[0].itens[1].titulo").value("P3"))
+                .andExpect(jsonPath("$.colunas[0].next").value(notNullValue()))
+                .andExpect(jsonPath("$.colunas[1].status").value("EM_ANDAMENTO"))
+                .andExpect(jsonPath("$.colunas[1].total").value(1))
+                .andExpect(jsonPath("$.colunas[1].next").value(nullValue()))
+                .andExpect(jsonPath("$.colunas[2].status").value("CONCLUIDO"))
+                .andExpect(jsonPath("$.colunas[2].total").value(2))
+                .andExpect(jsonPath("$.colunas[2].itens", hasSize(2)))
+                .andExpect(jsonPath("$.colunas[2].next").value(nullValue()))
+                .andExpect(jsonPath("$.colunas[3].status").value("CANCELADO"))
+                .andExpect(jsonPath("$.colunas[3].total").value(0))
+                .andExpect(jsonPath("$.colunas[3].itens", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("KANBAN: Column cursor should continue where the board stopped")
+    void kanban_ColumnContinuation() throws Exception {
+        MvcResult board = mockMvc.perform(get("/api/compromissos/kanban")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode pendente = objectMapper.readTree(board.getResponse().getContentAsString()).get("colunas").get(0);
+
+        List<String> titulos = new ArrayList<>();
+        pendente.get("itens").forEach(item -> titulos.add(item.get("titulo").asText()));
+        String cursor = pendente.get("next").asText();
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get("/api/compromissos/kanban/PENDENTE")
+                            .header("Authorization", "Bearer " + user1Token)
+                            .param("cursor", cursor)
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode coluna = objectMapper.readTree(result.getResponse().getContentAsString());
+            coluna.get("itens").forEach(item -> titulos.add(item.get("titulo").asText()));
+            cursor = coluna.get("next").isNull() ? null : coluna.get("next").asText();
+        }
+
+        assertThat(titulos).containsExactly("P4", "P3", "P2", "P1", "P0");
+    }
+
+    @Test
+    @DisplayName("KANBAN: Should only include rows of the authenticated user")
+    void kanban_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos/kanban")
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.colunas[0].total").value(1))
+                .andExpect(jsonPath("$.colunas[0].itens[0].titulo").value("Outro usuario"))
+                .andExpect(jsonPath("$.colunas[2].total").value(0));
+    }
+
+    @Test
+    @DisplayName("KANBAN: Should return 400 for unknown status column")
+    void kanban_UnknownStatus() throws Exception {
+        mockMvc.perform(get("/api/compromissos/kanban/ARQUIVADO")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isBadRequest());
+    }
+}
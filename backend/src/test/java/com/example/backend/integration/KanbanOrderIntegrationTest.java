@@ -0,0 +1,303 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.CompromissoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Kanban Manual Ordering Integration Tests")
+class KanbanOrderIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Long idA;
+    private Long idB;
+    private Long idC;
+    private Long idD;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        // Datas decrescentes: a ordem manual (criação) é a inversa da ordem por data
+        idA = criar("A", "PENDENTE", 3);
+        idB = criar("B", "PENDENTE", 2);
+        idC = criar("C", "PENDENTE", 1);
+        idD = criar("D", "CONCLUIDO", 1);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private Long criar(String titulo, String status, int dias) throws Exception {
+        String json = String.format("{\"titulo\":\"%s\",\"dataHora\":\"%s\",\"tipo\":\"OUTROS\",\"status\":\"%s\"}",
+                titulo, LocalDateTime.now().plusDays(dias).withNano(0), status);
+        MvcResult result = mockMvc.perform(post("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Compromisso semOrdem(String titulo, String status, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo("OUTROS");
+        c.setStatus(status);
+        c.setUsuario(user1);
+        return compromissoRepository.saveAndFlush(c);
+    }
+
+    private org.springframework.test.web.servlet.ResultActions mover(Long id, String token, String status, Long anteriorId) throws Exception {
+        return mockMvc.perform(put("/api/compromissos/" + id + "/posicao")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"" + status + "\",\"anteriorId\":" + anteriorId + "}"));
+    }
+
+    private List<String> titulosDaColuna(String status) throws Exception {
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/compromissos/kanban/" + status)
+                    .header("Authorization", "Bearer " + user1Token)
+                    .param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            JsonNode coluna = objectMapper.readTree(result.getResponse().getContentAsString());
+            coluna.get("itens").forEach(item -> titulos.add(item.get("titulo").asText()));
+            cursor = coluna.get("next").isNull() ? null : coluna.get("next").asText();
+        } while (cursor != null);
+        return titulos;
+    }
+
+    @Test
+    @DisplayName("ORDER: New cards should be appended to the end of their column")
+    void criar_AppendsToColumn() throws Exception {
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "B", "C");
+
+        String ordemA = compromissoRepository.findById(idA).orElseThrow().getOrdem();
+        String ordemC = compromissoRepository.findById(idC).orElseThrow().getOrdem();
+        assertThat(ordemA).isNotNull().isLessThan(ordemC);
+    }
+
+    @Test
+    @DisplayName("ORDER: Moving a card should update exactly one row")
+    void mover_SingleUpdate() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        mover(idC, user1Token, "PENDENTE", idA)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.id").value(idC))
+                .andExpect(jsonPath("$.status").value("PENDENTE"))
+                .andExpect(jsonPath("$.ordem").isNotEmpty());
+
+        List<String> updates = SqlCapturada.SQL.stream().filter(sql -> sql.startsWith("update compromisso")).toList();
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0)).contains("set status=?,ordem=?,versao_alteracao=?").contains("user_id=?");
+
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "C", "B");
+    }
+
+    @Test
+    @DisplayName("ORDER: Moving to the top of another column should change the status")
+    void mover_TopOfOtherColumn() throws Exception {
+        mover(idB, user1Token, "CONCLUIDO", null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONCLUIDO"));
+
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("B", "D");
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "C");
+
+        mover(idA, user1Token, "CONCLUIDO", idD).andExpect(status().isOk());
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("B", "D", "A");
+    }
+
+    @Test
+    @DisplayName("ORDER: Cards without a key should follow the keyed ones and get keys when used as anchor")
+    void mover_AnchorWithoutKey() throws Exception {
+        Compromisso antigo1 = semOrdem("Antigo 1", "PENDENTE", LocalDateTime.of(2030, 1, 1, 9, 0));
+        semOrdem("Antigo 2", "PENDENTE", LocalDateTime.of(2030, 1, 2, 9, 0));
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "B", "C", "Antigo 1", "Antigo 2");
+
+        mover(idA, user1Token, "PENDENTE", antigo1.getId())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.versao").value(1));
+
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("B", "C", "Antigo 1", "A", "Antigo 2");
+        assertThat(compromissoRepository.findAll()).allSatisfy(c -> assertThat(c.getOrdem()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("ORDER: Changing the status by PUT or PATCH should append the card to the new column")
+    void atualizar_StatusChangeAppendsToColumn() throws Exception {
+        // Mesmo título e data de C; só o status muda
+        String json = String.format("{\"titulo\":\"C\",\"dataHora\":\"%s\",\"tipo\":\"OUTROS\",\"status\":\"CONCLUIDO\"}",
+                LocalDateTime.now().plusDays(1).withNano(0));
+        mockMvc.perform(put("/api/compromissos/" + idC)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/compromissos/" + idB)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"status\":\"CONCLUIDO\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "C", "B");
+        assertThat(compromissoRepository.findAll().stream()
+                .filter(c -> c.getStatus().equals("CONCLUIDO")).map(Compromisso::getOrdem)).doesNotHaveDuplicates();
+
+        // Posicionar depois de D deve colocar o card logo abaixo de D, não depois de uma chave repetida
+        mover(idA, user1Token, "CONCLUIDO", idD).andExpect(status().isOk());
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "A", "C", "B");
+
+        // Um PUT sem mudar o status mantém a posição
+        mockMvc.perform(put("/api/compromissos/" + idC)
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json.replace("\"C\"", "\"C2\"")))
+                .andExpect(status().isOk());
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "A", "C2", "B");
+    }
+
+    @Test
+    @DisplayName("ORDER: Bulk status changes should clear the key of the moved cards")
+    void alterarStatusEmLote_ClearsKey() throws Exception {
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + idA + "," + idB + "," + idD + "],\"status\":\"CONCLUIDO\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(compromissoRepository.findById(idA).orElseThrow().getOrdem()).isNull();
+        assertThat(compromissoRepository.findById(idD).orElseThrow().getOrdem()).isNotNull();
+        // Sem chave, os cards movidos vêm depois dos que têm chave, por data
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "B", "A");
+
+        mover(idC, user1Token, "CONCLUIDO", idD).andExpect(status().isOk());
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "C", "B", "A");
+
+        compromissoService.rebalancearOrdens();
+        assertThat(titulosDaColuna("CONCLUIDO")).containsExactly("D", "C", "B", "A");
+        assertThat(compromissoRepository.findAll()).allSatisfy(c -> assertThat(c.getOrdem()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("ORDER: Should reject anchors outside the target column and foreign cards")
+    void mover_Invalid() throws Exception {
+        mover(idA, user1Token, "CONCLUIDO", idB).andExpect(status().isBadRequest());
+        mover(idA, user1Token, "PENDENTE", idA).andExpect(status().isBadRequest());
+        mover(idA, user2Token, "PENDENTE", null).andExpect(status().isForbidden());
+        mover(999999L, user1Token, "PENDENTE", null).andExpect(status().isNotFound());
+
+        mockMvc.perform(put("/api/compromissos/" + idA + "/posicao")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PENDENTE\",\"anteriorId\":null}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "B", "C");
+    }
+
+    @Test
+    @DisplayName("ORDER: Rebalance job should shorten long keys keeping the order")
+    void rebalancear_ShortensLongKeys() throws Exception {
+        String prefixo = "i".repeat(40);
+        for (Object[] par : new Object[][]{{idA, prefixo + "1"}, {idB, prefixo + "2"}, {idC, prefixo + "3"}}) {
+            Compromisso c = compromissoRepository.findById((Long) par[0]).orElseThrow();
+            c.setOrdem((String) par[1]);
+            compromissoRepository.saveAndFlush(c);
+        }
+
+        compromissoService.rebalancearOrdens();
+
+        assertThat(titulosDaColuna("PENDENTE")).containsExactly("A", "B", "C");
+        assertThat(compromissoRepository.findAll())
+                .allSatisfy(c -> assertThat(c.getOrdem()).hasSizeLessThanOrEqualTo(4));
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Optimistic Concurrency (If-Match) Integration Tests")
+class OptimisticConcurrencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("Original");
+        doUser1.setDescricao("Descrição original");
+        doUser1.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        doUser1.setTipo("PERICIA");
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final String ATUALIZACAO =
+            "{\"titulo\":\"Atualizado\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\",\"status\":\"CONCLUIDO\"}";
+
+    private org.springframework.test.web.servlet.ResultActions atualizar(Long id, String token, String ifMatch) throws Exception {
+        var requisicao = put("/api/compromissos/" + id)
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ATUALIZACAO);
+        if (ifMatch != null) {
+            requisicao.header("If-Match", ifMatch);
+        }
+        return mockMvc.perform(requisicao);
+    }
+
+    private long versaoAtual() {
+        return compromissoRepository.findById(doUser1.getId()).orElseThrow().getVersao();
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: Created, updated and listed items should carry their version")
+    void versionExposed() throws Exception {
+        mockMvc.perform(post("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.versao").value(0));
+
+        atualizar(doUser1.getId(), user1Token, null)
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.versao").value(1));
+
+        mockMvc.perform(get("/api/compromissos")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + doUser1.getId() + ")].versao").value(1));
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: Stale PUT should give 412 from the UPDATE itself and leave the row untouched")
+    void staleUpdate_PreconditionFailed() throws Exception {
+        atualizar(doUser1.getId(), user1Token, "\"0\"").andExpect(status().isOk());
+
+        SqlCapturada.SQL.clear();
+        atualizar(doUser1.getId(), user1Token, "\"0\"").andExpect(status().isPreconditionFailed());
+
+        String update = SqlCapturada.SQL.stream().filter(sql -> sql.startsWith("update compromisso")).findFirst().orElseThrow();
+        assertThat(update).contains("versao=?");
+        assertThat(versaoAtual()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: PATCH should honor If-Match and return the new ETag")
+    void patch_IfMatch() throws Exception {
+        mockMvc.perform(patch("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"urgente\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(patch("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"urgente\":false}"))
+                .andExpect(status().isPreconditionFailed());
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.isUrgente()).isTrue();
+        assertThat(salvo.getVersao()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: DELETE should only remove the item at the expected version")
+    void delete_IfMatch() throws Exception {
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"7\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(compromissoRepository.existsById(doUser1.getId())).isTrue();
+
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isNoContent());
+        assertThat(compromissoRepository.existsById(doUser1.getId())).isFalse();
+
+        // Sem representação atual, If-Match não pode ser satisfeito
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: Wildcard matches, weak or malformed tags never match, other users still get 403")
+    void ifMatchVariants() throws Exception {
+        atualizar(doUser1.getId(), user1Token, "W/\"0\"").andExpect(status().isPreconditionFailed());
+        atualizar(doUser1.getId(), user1Token, "abc").andExpect(status().isPreconditionFailed());
+        atualizar(doUser1.getId(), user2Token, "\"0\"").andExpect(status().isForbidden());
+        atualizar(999999L, user1Token, "\"0\"").andExpect(status().isNotFound());
+        assertThat(versaoAtual()).isZero();
+
+        atualizar(doUser1.getId(), user1Token, "*").andExpect(status().isOk());
+        assertThat(versaoAtual()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("IF-MATCH: Bulk status changes should bump the version so stale clients get 412")
+    void bulkStatus_BumpsVersion() throws Exception {
+        mockMvc.perform(post("/api/compromissos/bulk/status")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CONCLUIDO\",\"ids\":[" + doUser1.getId() + "]}"))
+                .andExpect(status().isOk());
+        assertThat(versaoAtual()).isEqualTo(1);
+
+        atualizar(doUser1.getId(), user1Token, "\"0\"").andExpect(status().isPreconditionFailed());
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Ownership-Checked Write Integration Tests")
+class OwnershipWriteIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("Original");
+        doUser1.setDescricao("Descrição original");
+        doUser1.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        doUser1.setTipo("PERICIA");
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final String ATUALIZACAO =
+            "{\"titulo\":\"Atualizado\",\"dataHora\":\"2030-02-01T10:00\",\"tipo\":\"TRABALHO\",\"status\":\"PENDENTE\",\"valor\":12.5}";
+
+    private List<String> sqlCompromisso() {
+        return SqlCapturada.SQL.stream().filter(sql -> sql.contains("compromisso")).toList();
+    }
+
+    // Trava e incremento da versão do usuário (a consulta do filtro JWT fica de fora)
+    private List<String> sqlVersaoUsuario() {
+        return SqlCapturada.SQL.stream()
+                .filter(sql -> sql.startsWith("update users") || sql.endsWith("for update"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Update should be a single UPDATE filtered by id and owner, without loading the entity")
+    void update_SingleStatement() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        mockMvc.perform(put("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(doUser1.getId()))
+                .andExpect(jsonPath("$.titulo").value("Atualizado"))
+                .andExpect(jsonPath("$.status").value("PENDENTE"))
+                .andExpect(jsonPath("$.valor").value(12.5))
+                .andExpect(jsonPath("$.username").value("user1"))
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // O status não muda: um único UPDATE, sem consultar a coluna do Kanban; a resposta é relida pela projeção
+        assertThat(sqlCompromisso()).hasSize(2);
+        assertThat(sqlCompromisso().get(0)).startsWith("update compromisso").contains("user_id=?");
+        assertThat(sqlCompromisso().get(1)).startsWith("select").doesNotContain("max(");
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.getTitulo()).isEqualTo("Atualizado");
+        assertThat(salvo.getDescricao()).isNull();
+        assertThat(salvo.getTipo()).isEqualTo("TRABALHO");
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Update that changes the status should read the new column's last key only then")
+    void update_StatusChange_MovesToEndOfColumn() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        mockMvc.perform(put("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO.replace("PENDENTE", "CONCLUIDO")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONCLUIDO"))
+                .andExpect(header().string("ETag", "\"1\""));
+
+        // O UPDATE restrito ao status atual não afeta a linha; só então a chave do fim da coluna nova
+        List<String> sql = sqlCompromisso();
+        assertThat(sql).hasSize(4);
+        assertThat(sql.get(0)).startsWith("update compromisso").contains("status=?");
+        assertThat(sql.get(1)).startsWith("select max(c1_0.ordem) from compromisso");
+        assertThat(sql.get(2)).startsWith("update compromisso").contains("ordem=?");
+
+        assertThat(compromissoRepository.findById(doUser1.getId()).orElseThrow().getOrdem()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Update response should be the stored state, the same body GET returns")
+    void update_ResponseMatchesGet() throws Exception {
+        // Sem If-Match e mudando de coluna: versão e chave de ordem só existem na linha gravada
+        String resposta = mockMvc.perform(put("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO.replace("PENDENTE", "CONCLUIDO")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.versao").value(1))
+                .andExpect(jsonPath("$.ordem").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        String lido = mockMvc.perform(get("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(resposta)).isEqualTo(objectMapper.readTree(lido));
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Delete should be a single DELETE filtered by id and owner")
+    void delete_SingleStatement() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+
+        List<String> sql = sqlCompromisso().stream().filter(s -> !s.contains("compromisso_removido")).toList();
+        assertThat(sql).hasSize(1);
+        assertThat(sql.get(0)).startsWith("delete from compromisso").contains("user_id=?");
+        assertThat(compromissoRepository.existsById(doUser1.getId())).isFalse();
+        // Trava do usuário antes do DELETE; a versão só é incrementada depois, já que houve exclusão
+        assertThat(sqlVersaoUsuario()).hasSize(2);
+        assertThat(sqlVersaoUsuario().get(0)).startsWith("select").contains("from users");
+        assertThat(sqlVersaoUsuario().get(1)).startsWith("update users");
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Another user's item should give 403 and stay untouched")
+    void otherUser_Forbidden() throws Exception {
+        mockMvc.perform(put("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user2Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isForbidden());
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.getTitulo()).isEqualTo("Original");
+    }
+
+    @Test
+    @DisplayName("OWNERSHIP: Missing ids should give 404 on update and an idempotent 204 on delete")
+    void missing_NotFoundAndIdempotentDelete() throws Exception {
+        mockMvc.perform(put("/api/compromissos/999999")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ATUALIZACAO))
+                .andExpect(status().isNotFound());
+
+        SqlCapturada.SQL.clear();
+        mockMvc.perform(delete("/api/compromissos/999999")
+                        .header("Authorization", "Bearer " + user1Token))
+                .andExpect(status().isNoContent());
+        // Nada foi excluído: a versão de dados (ETag, feed, sincronização) não muda
+        assertThat(sqlVersaoUsuario()).singleElement().satisfies(sql -> assertThat(sql).endsWith("for update"));
+    }
+}
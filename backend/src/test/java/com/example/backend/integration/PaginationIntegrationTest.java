@@ -0,0 +1,177 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Keyset Pagination Integration Tests")
+class PaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        // Two rows share the same dataHora to exercise the id tie-breaker
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        createCompromisso(user1, "C1", base.plusDays(3));
+        createCompromisso(user1, "C2", base.plusDays(1));
+        createCompromisso(user1, "C3", base.plusDays(2));
+        createCompromisso(user1, "C4", base.plusDays(2));
+        createCompromisso(user1, "C5", base);
+        createCompromisso(user2, "Outro usuario", base);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String titulo, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDataHora(dataHora);
+        c.setTipo("OUTROS");
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    private JsonNode page(String token, String cursor, int limit) throws Exception {
+        var request = get("/api/compromissos/page")
+                .header("Authorization", "Bearer " + token)
+                .param("limit", String.valueOf(limit));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("PAGE: Should walk every row once in (dataHora, id) order")
+    void page_WalksAllRowsInOrder() throws Exception {
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            JsonNode body = page(user1Token, cursor, 2);
+            body.get("itens").forEach(item -> titulos.add(item.get("titulo").asText()));
+            cursor = body.get("next").isNull() ? null : body.get("next").asText();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(paginas).isEqualTo(3);
+        assertThat(titulos).containsExactly("C5", "C2", "C3", "C4", "C1");
+    }
+
+    @Test
+    @DisplayName("PAGE: Last page should have no next cursor")
+    void page_LastPageHasNoCursor() throws Exception {
+        mockMvc.perform(get("/api/compromissos/page")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(5)))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("PAGE: Should only return rows of the authenticated user")
+    void page_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos/page")
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Outro usuario"));
+    }
+
+    @Test
+    @DisplayName("PAGE: Should return 400 for malformed cursor")
+    void page_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/compromissos/page")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("cursor", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("PAGE: Should return 400 for non-positive limit")
+    void page_InvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/compromissos/page")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
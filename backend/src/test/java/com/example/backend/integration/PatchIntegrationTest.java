@@ -0,0 +1,186 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@TestPropertySource(properties = SqlCapturada.PROPRIEDADE)
+@DisplayName("Partial Update (PATCH) Integration Tests")
+class PatchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    private Compromisso doUser1;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        doUser1 = new Compromisso();
+        doUser1.setTitulo("Original");
+        doUser1.setDescricao("Descrição original");
+        // Compromisso já passado: um PUT completo falharia no @FutureOrPresent de dataHora
+        doUser1.setDataHora(LocalDateTime.of(2020, 1, 1, 9, 0));
+        doUser1.setTipo("PERICIA");
+        doUser1.setValor(40.0);
+        doUser1.setUsuario(user1);
+        doUser1 = compromissoRepository.saveAndFlush(doUser1);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+
+    private org.springframework.test.web.servlet.ResultActions patchar(Long id, String token, String json) throws Exception {
+        return mockMvc.perform(patch("/api/compromissos/" + id)
+                .header("Authorization", "Bearer " + token)
+                .contentType(MERGE_PATCH)
+                .content(json));
+    }
+
+    @Test
+    @DisplayName("PATCH: Status-only patch should update just that column, even on a past item")
+    void statusOnly_SingleColumnUpdate() throws Exception {
+        SqlCapturada.SQL.clear();
+
+        patchar(doUser1.getId(), user1Token, "{\"status\":\"CONCLUIDO\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(doUser1.getId()))
+                .andExpect(jsonPath("$.status").value("CONCLUIDO"))
+                .andExpect(jsonPath("$.titulo").value("Original"))
+                .andExpect(jsonPath("$.descricao").value("Descrição original"))
+                .andExpect(jsonPath("$.valor").value(40.0))
+                .andExpect(jsonPath("$.username").value("user1"));
+
+        List<String> updates = SqlCapturada.SQL.stream().filter(sql -> sql.startsWith("update compromisso")).toList();
+        // O UPDATE restrito ao status atual não afeta a linha; o seguinte leva o card para o fim da coluna nova
+        assertThat(updates).hasSize(2);
+        assertThat(updates.get(1)).contains("set status=?,versao_alteracao=?,ordem=?")
+                .contains("versao=(c1_0.versao+")
+                .contains("user_id=?");
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.getStatus()).isEqualTo("CONCLUIDO");
+        assertThat(salvo.getDataHora()).isEqualTo(LocalDateTime.of(2020, 1, 1, 9, 0));
+    }
+
+    @Test
+    @DisplayName("PATCH: Plain application/json should also be accepted (toggle urgente)")
+    void plainJson_ToggleUrgente() throws Exception {
+        mockMvc.perform(patch("/api/compromissos/" + doUser1.getId())
+                        .header("Authorization", "Bearer " + user1Token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"urgente\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urgente").value(true));
+
+        assertThat(compromissoRepository.findById(doUser1.getId()).orElseThrow().isUrgente()).isTrue();
+    }
+
+    @Test
+    @DisplayName("PATCH: null should clear optional fields")
+    void null_ClearsOptionalFields() throws Exception {
+        patchar(doUser1.getId(), user1Token, "{\"descricao\":null,\"valor\":null}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.descricao").doesNotExist())
+                .andExpect(jsonPath("$.valor").value(0.0));
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.getDescricao()).isNull();
+        assertThat(salvo.getValor()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("PATCH: Invalid patches should give 400 and leave the item untouched")
+    void invalidPatches_BadRequest() throws Exception {
+        patchar(doUser1.getId(), user1Token, "{}").andExpect(status().isBadRequest());
+        patchar(doUser1.getId(), user1Token, "{\"titulo\":null}").andExpect(status().isBadRequest());
+        patchar(doUser1.getId(), user1Token, "{\"titulo\":\"\"}").andExpect(status().isBadRequest());
+        patchar(doUser1.getId(), user1Token, "{\"id\":5}").andExpect(status().isBadRequest());
+        patchar(doUser1.getId(), user1Token, "{\"status\":\"ARQUIVADO\"}").andExpect(status().isBadRequest());
+        patchar(doUser1.getId(), user1Token, "{\"dataHora\":\"2020-06-01T10:00:00\"}")
+                .andExpect(status().isBadRequest());
+
+        Compromisso salvo = compromissoRepository.findById(doUser1.getId()).orElseThrow();
+        assertThat(salvo.getTitulo()).isEqualTo("Original");
+        assertThat(salvo.getStatus()).isEqualTo("PENDENTE");
+    }
+
+    @Test
+    @DisplayName("PATCH: Another user's item should give 403 and a missing id 404")
+    void ownership_ForbiddenAndNotFound() throws Exception {
+        patchar(doUser1.getId(), user2Token, "{\"status\":\"CONCLUIDO\"}").andExpect(status().isForbidden());
+        patchar(999999L, user1Token, "{\"status\":\"CONCLUIDO\"}").andExpect(status().isNotFound());
+
+        assertThat(compromissoRepository.findById(doUser1.getId()).orElseThrow().getStatus()).isEqualTo("PENDENTE");
+    }
+}
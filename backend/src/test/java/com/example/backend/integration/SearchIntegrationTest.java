@@ -0,0 +1,197 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Full-Text Search Integration Tests")
+class SearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        createCompromisso(user1, "Reunião de pauta", "Revisar laudo pericial", base.plusDays(2));
+        createCompromisso(user1, "Laudo pericial", "Entregar no fórum", base.plusDays(3));
+        createCompromisso(user1, "Dentista", "Consulta de rotina", base.plusDays(1));
+        createCompromisso(user1, "Desconto 100%_off", null, base.plusDays(4));
+        createCompromisso(user2, "Laudo pericial do user2", null, base);
+        // A busca roda via JDBC: garante que os inserts estejam visíveis na transação do teste
+        compromissoRepository.flush();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String titulo, String descricao, LocalDateTime dataHora) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(titulo);
+        c.setDescricao(descricao);
+        c.setDataHora(dataHora);
+        c.setTipo("PERICIA");
+        c.setStatus("PENDENTE");
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should match title and description, ranking title matches first")
+    void search_RanksTitleMatchesFirst() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "laudo pericial"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.q").value("laudo pericial"))
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.temMais").value(false))
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Laudo pericial"))
+                .andExpect(jsonPath("$.itens[0].username").value("user1"))
+                .andExpect(jsonPath("$.itens[1].titulo").value("Reunião de pauta"));
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should require every word of the query")
+    void search_RequiresAllWords() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "laudo dentista"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should treat LIKE wildcards in the query literally")
+    void search_EscapesWildcards() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "100%_off"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Desconto 100%_off"));
+
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should paginate with page and limit")
+    void search_Paginates() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "pericial")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temMais").value(true))
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Laudo pericial"));
+
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "pericial")
+                        .param("limit", "1")
+                        .param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.temMais").value(false))
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Reunião de pauta"));
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should only return the authenticated user's items")
+    void search_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user2Token)
+                        .param("q", "laudo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Laudo pericial do user2"));
+    }
+
+    @Test
+    @DisplayName("SEARCH: Should reject blank queries and negative pages")
+    void search_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "   "))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/compromissos/search")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("q", "laudo")
+                        .param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL generated by Hibernate so tests can assert what reaches the database.
+ * Enabled per test class with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapturada implements StatementInspector {
+
+    static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+    static final String PROPRIEDADE =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.backend.integration.SqlCapturada";
+
+    @Override
+    public String inspect(String sql) {
+        SQL.add(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend.integration;
+
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Dashboard Stats Integration Tests")
+class StatsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private com.example.backend.service.RateLimitService rateLimitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Usuario user1;
+    private String user1Token;
+    private String user2Token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org.mockito.Mockito.when(rateLimitService.tryConsume(org.mockito.ArgumentMatchers.anyString())).thenReturn(true);
+
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        user1 = new Usuario();
+        user1.setUsername("user1");
+        user1.setPassword(passwordEncoder.encode("pass1"));
+        user1 = usuarioRepository.save(user1);
+
+        Usuario user2 = new Usuario();
+        user2.setUsername("user2");
+        user2.setPassword(passwordEncoder.encode("pass2"));
+        user2 = usuarioRepository.save(user2);
+
+        user1Token = login("user1", "pass1");
+        user2Token = login("user2", "pass2");
+
+        LocalDateTime agora = LocalDateTime.of(2030, 1, 10, 12, 0);
+        createCompromisso(user1, "PERICIA", "PENDENTE", agora.plusDays(1), 100.0);
+        createCompromisso(user1, "PERICIA", "CONCLUIDO", agora.minusDays(1), 250.5);
+        createCompromisso(user1, "PERICIA", "PENDENTE", agora.plusHours(1), 0.0);
+        createCompromisso(user1, "TRABALHO", "EM_ANDAMENTO", agora.minusHours(1), 50.0);
+        createCompromisso(user1, "FAMILIA", "CANCELADO", agora.plusDays(30), 10.0);
+        createCompromisso(user2, "PERICIA", "PENDENTE", agora.plusDays(1), 999.0);
+    }
+
+    private String login(String username, String password) throws Exception {
+        String loginJson = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, password);
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+
+    private void createCompromisso(Usuario user, String tipo, String status, LocalDateTime dataHora, double valor) {
+        Compromisso c = new Compromisso();
+        c.setTitulo(tipo + " " + status);
+        c.setDataHora(dataHora);
+        c.setTipo(tipo);
+        c.setStatus(status);
+        c.setValor(valor);
+        c.setUsuario(user);
+        compromissoRepository.save(c);
+    }
+
+    @Test
+    @DisplayName("STATS: Should aggregate counts by tipo and status")
+    void stats_CountsByTipoAndStatus() throws Exception {
+        mockMvc.perform(get("/api/compromissos/stats")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("agora", "2030-01-10T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.porTipo.PERICIA").value(3))
+                .andExpect(jsonPath("$.porTipo.TRABALHO").value(1))
+                .andExpect(jsonPath("$.porTipo.FAMILIA").value(1))
+                .andExpect(jsonPath("$.porTipo.ESTUDOS").value(0))
+                .andExpect(jsonPath("$.porStatus.PENDENTE").value(2))
+                .andExpect(jsonPath("$.porStatus.CONCLUIDO").value(1))
+                .andExpect(jsonPath("$.porStatus.EM_ANDAMENTO").value(1))
+                .andExpect(jsonPath("$.porStatus.CANCELADO").value(1));
+    }
+
+    @Test
+    @DisplayName("STATS: Should count future compromissos relative to the reference time")
+    void stats_FutureCount() throws Exception {
+        mockMvc.perform(get("/api/compromissos/stats")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("agora", "2030-01-10T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.proximos").value(3));
+    }
+
+    @Test
+    @DisplayName("STATS: Should sum valor overall and per tipo")
+    void stats_ValueSums() throws Exception {
+        mockMvc.perform(get("/api/compromissos/stats")
+                        .header("Authorization", "Bearer " + user1Token)
+                        .param("agora", "2030-01-10T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valorTotal").value(410.5))
+                .andExpect(jsonPath("$.valorPorTipo.PERICIA").value(350.5))
+                .andExpect(jsonPath("$.valorPorTipo.TRABALHO").value(50.0));
+    }
+
+    @Test
+    @DisplayName("STATS: Should only aggregate rows of the authenticated user")
+    void stats_IsolatedPerUser() throws Exception {
+        mockMvc.perform(get("/api/compromissos/stats")
+                        .header("Authorization", "Bearer " + user2Token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.valorTotal").value(999.0));
+    }
+}
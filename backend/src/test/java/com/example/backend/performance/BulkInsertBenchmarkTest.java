@@ -0,0 +1,121 @@
+package com.example.backend.performance;
+
+import com.example.backend.dto.CompromissoLoteDTO;
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import com.example.backend.service.CompromissoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares creating compromissos one at a time (CompromissoService.criar, one
+ * transaction per item, as POST /api/compromissos does) against the bulk path
+ * (criarEmLote), and checks through Hibernate statistics that the bulk INSERTs
+ * are actually sent as JDBC batches.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BulkInsertBenchmarkTest {
+
+    private static final int ROWS = 1_000;
+    private static final int WARMUP = 2;
+    private static final int ITERATIONS = 3;
+
+    @Autowired
+    private CompromissoService compromissoService;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<CompromissoRequestDTO> payload;
+
+    @BeforeEach
+    void setUp() {
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        Usuario user = new Usuario();
+        user.setUsername("bench_user");
+        user.setPassword("irrelevant");
+        usuarioRepository.save(user);
+
+        payload = new ArrayList<>(ROWS);
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            CompromissoRequestDTO dto = new CompromissoRequestDTO();
+            dto.setTitulo("Compromisso " + i);
+            dto.setDescricao("Importado " + i);
+            dto.setDataHora(base.plusMinutes(i * 30L));
+            dto.setTipo(CompromissoTipo.values()[i % CompromissoTipo.values().length]);
+            dto.setStatus(CompromissoStatus.values()[i % CompromissoStatus.values().length]);
+            dto.setValor(BigDecimal.valueOf(i));
+            dto.setUrgente(i % 7 == 0);
+            payload.add(dto);
+        }
+    }
+
+    @Test
+    void bulkPath_ShouldBatchInsertsAndBeFasterThanPerItemPath() {
+        double perItemMillis = measure(() -> {
+            for (CompromissoRequestDTO dto : payload) {
+                compromissoService.criar(dto, "bench_user");
+            }
+        });
+
+        CompromissoLoteDTO lote = new CompromissoLoteDTO();
+        lote.setItens(payload);
+        double bulkMillis = measure(() -> compromissoService.criarEmLote(lote, "bench_user"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        compromissoService.criarEmLote(lote, "bench_user");
+        long statements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Per-item path: %.2f ms (%.0f inserts/s, %d rows)%n",
+                perItemMillis, ROWS / perItemMillis * 1000, ROWS);
+        System.out.printf("Bulk path:     %.2f ms (%.0f inserts/s, %d rows, %d statements prepared)%n",
+                bulkMillis, ROWS / bulkMillis * 1000, ROWS, statements);
+
+        // One prepared statement per batch of 50 INSERTs, plus sequence calls and the user lookups
+        assertThat(statements).isLessThan(ROWS / 10);
+        assertThat(bulkMillis * 10).isLessThan(perItemMillis);
+    }
+
+    private double measure(Runnable path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.run();
+        }
+        long totalNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            path.run();
+            totalNanos += System.nanoTime() - start;
+        }
+        return totalNanos / (double) ITERATIONS / 1_000_000.0;
+    }
+}
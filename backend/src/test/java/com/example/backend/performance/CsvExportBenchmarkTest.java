@@ -0,0 +1,153 @@
+package com.example.backend.performance;
+
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.util.CsvUtils;
+import com.example.backend.util.CsvWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the previous export row encoding (PrintWriter.printf + CsvUtils.sanitize +
+ * DateTimeFormatter per row) against CsvWriter over 50k in-memory rows, measuring latency
+ * and bytes allocated by the calling thread, and checks that both produce the same output.
+ */
+public class CsvExportBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    private static final String HEADER = "id,titulo,dataHora,tipo,status,valor,urgente,descricao";
+
+    private final List<CompromissoResponseDTO> rows = createRows();
+
+    @Test
+    void csvWriter_ShouldMatchOutputAndAllocateLessThanPrintf() throws IOException {
+        StringWriter legacy = new StringWriter();
+        printfPath(legacy);
+        StringWriter current = new StringWriter();
+        csvWriterPath(current);
+        assertThat(current.toString()).isEqualTo(legacy.toString());
+
+        Measurement printf = measure(this::printfPath);
+        Measurement csvWriter = measure(this::csvWriterPath);
+
+        System.out.printf("printf + sanitize: %.2f ms, %.2f MB allocated (%d rows)%n",
+                printf.millis, printf.megabytes(), ROWS);
+        System.out.printf("CsvWriter:         %.2f ms, %.2f MB allocated (%d rows)%n",
+                csvWriter.millis, csvWriter.megabytes(), ROWS);
+
+        assertThat(csvWriter.bytes).isLessThan(printf.bytes);
+    }
+
+    private interface Path {
+        void write(Writer out) throws IOException;
+    }
+
+    private Measurement measure(Path path) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            path.write(Writer.nullWriter());
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            path.write(Writer.nullWriter());
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        return new Measurement(totalNanos / (double) ITERATIONS / 1_000_000.0, totalBytes / ITERATIONS);
+    }
+
+    // Mirror of the previous CompromissoController.exportar row loop
+    private void printfPath(Writer out) {
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+        PrintWriter writer = new PrintWriter(out);
+        writer.println(HEADER);
+        for (CompromissoResponseDTO c : rows) {
+            String csvTitulo = CsvUtils.sanitize(c.getTitulo());
+            String csvDescricao = CsvUtils.sanitize(c.getDescricao());
+            String dataHora = c.getDataHora() != null ? dtf.format(c.getDataHora()) : "";
+            String valor = (c.getValor() != null) ? c.getValor().toString() : "";
+            String urgente = c.isUrgente() ? "true" : "false";
+            writer.printf("%d,%s,%s,%s,%s,%s,%s,%s%n",
+                    c.getId(),
+                    csvTitulo,
+                    dataHora,
+                    c.getTipo() != null ? c.getTipo().name() : "",
+                    c.getStatus() != null ? c.getStatus().name() : "",
+                    valor,
+                    urgente,
+                    csvDescricao
+            );
+        }
+        writer.flush();
+    }
+
+    // Same encoding as the JPA path of ExportacaoService.escreverCsv
+    private void csvWriterPath(Writer out) throws IOException {
+        CsvWriter csv = new CsvWriter(out);
+        for (String coluna : HEADER.split(",")) {
+            csv.field(coluna);
+        }
+        csv.endRow();
+        for (CompromissoResponseDTO c : rows) {
+            csv.field(c.getId())
+                    .field(c.getTitulo())
+                    .field(c.getDataHora())
+                    .field(c.getTipo())
+                    .field(c.getStatus())
+                    .field(c.getValor())
+                    .field(c.isUrgente())
+                    .field(c.getDescricao())
+                    .endRow();
+        }
+        csv.flush();
+    }
+
+    private static List<CompromissoResponseDTO> createRows() {
+        List<CompromissoResponseDTO> rows = new ArrayList<>(ROWS);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 8, 0);
+        for (int i = 0; i < ROWS; i++) {
+            CompromissoResponseDTO c = new CompromissoResponseDTO();
+            c.setId((long) i + 1);
+            c.setTitulo(i % 10 == 0 ? "=Perícia, sala \"B\" " + i : "Compromisso " + i);
+            c.setDescricao(i % 3 == 0 ? null : "Descrição do compromisso " + i + "\nsegunda linha");
+            c.setDataHora(base.plusMinutes(i * 30L));
+            c.setTipo(CompromissoTipo.values()[i % CompromissoTipo.values().length]);
+            c.setStatus(CompromissoStatus.values()[i % CompromissoStatus.values().length]);
+            c.setValor(i % 4 == 0 ? null : BigDecimal.valueOf(i * 1.5));
+            c.setUrgente(i % 7 == 0);
+            rows.add(c);
+        }
+        // BigDecimal caches its toString(); warm it up so both paths start from the same state
+        rows.forEach(c -> String.valueOf(c.getValor()));
+        return rows;
+    }
+
+    private record Measurement(double millis, long bytes) {
+        double megabytes() {
+            return bytes / (1024.0 * 1024.0);
+        }
+    }
+}
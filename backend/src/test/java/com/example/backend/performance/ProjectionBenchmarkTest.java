@@ -0,0 +1,151 @@
+package com.example.backend.performance;
+
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.model.Compromisso;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.model.Usuario;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the legacy list path (managed entities + eager Usuario + toDTO copy)
+ * against the DTO projection path at 10k rows, measuring latency and bytes
+ * allocated by the calling thread.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProjectionBenchmarkTest {
+
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    private CompromissoRepository compromissoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        compromissoRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        Usuario user = new Usuario();
+        user.setUsername("bench_user");
+        user.setPassword("irrelevant");
+        user = usuarioRepository.save(user);
+
+        List<Compromisso> rows = new ArrayList<>(ROWS);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 8, 0);
+        for (int i = 0; i < ROWS; i++) {
+            Compromisso c = new Compromisso();
+            c.setTitulo("Compromisso " + i);
+            c.setDescricao("Descrição do compromisso " + i);
+            c.setDataHora(base.plusMinutes(i * 30L));
+            c.setTipo(CompromissoTipo.values()[i % CompromissoTipo.values().length].name());
+            c.setStatus(CompromissoStatus.values()[i % CompromissoStatus.values().length].name());
+            c.setValor(i * 1.5);
+            c.setUrgente(i % 7 == 0);
+            c.setUsuario(user);
+            rows.add(c);
+        }
+        compromissoRepository.saveAll(rows);
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void projectionPath_ShouldAllocateLessThanEntityPath() {
+        Measurement entity = measure(() -> legacyList("bench_user"));
+        Measurement projection = measure(() -> compromissoRepository.listarProjecao("bench_user"));
+
+        System.out.printf("Entity path:     %.2f ms, %.2f MB allocated (%d rows)%n",
+                entity.millis, entity.megabytes(), ROWS);
+        System.out.printf("Projection path: %.2f ms, %.2f MB allocated (%d rows)%n",
+                projection.millis, projection.megabytes(), ROWS);
+
+        assertThat(projection.rows).isEqualTo(ROWS);
+        assertThat(entity.rows).isEqualTo(ROWS);
+        assertThat(projection.bytes).isLessThan(entity.bytes);
+    }
+
+    private Measurement measure(Supplier<List<CompromissoResponseDTO>> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> path.get());
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long totalNanos = 0;
+        long totalBytes = 0;
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            List<CompromissoResponseDTO> result = readOnly.execute(status -> path.get());
+            totalNanos += System.nanoTime() - start;
+            totalBytes += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            rows = result.size();
+        }
+        return new Measurement(totalNanos / (double) ITERATIONS / 1_000_000.0, totalBytes / ITERATIONS, rows);
+    }
+
+    // Mirror of the previous CompromissoService.listarTodos / toDTO implementation
+    private List<CompromissoResponseDTO> legacyList(String username) {
+        List<CompromissoResponseDTO> result = new ArrayList<>();
+        for (Compromisso entity : compromissoRepository.findByUsuarioUsername(username)) {
+            CompromissoResponseDTO dto = new CompromissoResponseDTO();
+            dto.setId(entity.getId());
+            dto.setTitulo(entity.getTitulo());
+            dto.setDescricao(entity.getDescricao());
+            dto.setDataHora(entity.getDataHora());
+            dto.setValor(BigDecimal.valueOf(entity.getValor()));
+            try {
+                dto.setTipo(CompromissoTipo.valueOf(entity.getTipo()));
+            } catch (IllegalArgumentException e) {
+                dto.setTipo(CompromissoTipo.OUTROS);
+            }
+            try {
+                dto.setStatus(CompromissoStatus.valueOf(entity.getStatus()));
+            } catch (IllegalArgumentException e) {
+                dto.setStatus(CompromissoStatus.PENDENTE);
+            }
+            dto.setUrgente(entity.isUrgente());
+            dto.setUsername(entity.getUsuario().getUsername());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private record Measurement(double millis, long bytes, int rows) {
+        double megabytes() {
+            return bytes / (1024.0 * 1024.0);
+        }
+    }
+}
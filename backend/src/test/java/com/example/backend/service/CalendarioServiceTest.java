@@ -0,0 +1,83 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.EstadoFeed;
+import com.example.backend.repository.CompromissoRepository;
+import com.example.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CalendarioService Tests")
+class CalendarioServiceTest {
+
+    private static final String TOKEN = "token-do-feed";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private CompromissoRepository compromissoRepository;
+
+    @Mock
+    private EstadoFeed estado;
+
+    @InjectMocks
+    private CalendarioService calendarioService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(calendarioService, "cacheSegundos", 60L);
+        when(estado.getUsername()).thenReturn("u1");
+    }
+
+    @Test
+    @DisplayName("Should answer repeated polls from the cache")
+    void estado_Cached() {
+        when(usuarioRepository.buscarEstadoFeed(TOKEN)).thenReturn(Optional.of(estado));
+
+        assertSame(estado, calendarioService.estado(TOKEN));
+        assertSame(estado, calendarioService.estado(TOKEN));
+
+        verify(usuarioRepository, times(1)).buscarEstadoFeed(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should not cache a state read before an invalidation that ran during the read")
+    void estado_InvalidatedDuringRead_NotCached() {
+        // A leitura começa antes do commit de uma alteração; a invalidação (após o commit) roda antes do put
+        when(usuarioRepository.buscarEstadoFeed(TOKEN)).thenAnswer(invocacao -> {
+            calendarioService.invalidar("u1");
+            return Optional.of(estado);
+        }).thenReturn(Optional.of(estado));
+
+        calendarioService.estado(TOKEN);
+        calendarioService.estado(TOKEN);
+        calendarioService.estado(TOKEN);
+
+        // A segunda consulta relê o banco; só o estado dela fica em cache
+        verify(usuarioRepository, times(2)).buscarEstadoFeed(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should read the database again after an invalidation")
+    void invalidar_Descarta() {
+        when(usuarioRepository.buscarEstadoFeed(TOKEN)).thenReturn(Optional.of(estado));
+
+        calendarioService.estado(TOKEN);
+        calendarioService.invalidar("u1");
+        calendarioService.estado(TOKEN);
+
+        verify(usuarioRepository, times(2)).buscarEstadoFeed(TOKEN);
+    }
+}
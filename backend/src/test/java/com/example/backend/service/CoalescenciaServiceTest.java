@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.exception.ConflitoException;
+import com.example.backend.exception.PreCondicaoFalhouException;
+import com.example.backend.exception.RecursoNaoEncontradoException;
+import com.example.backend.model.CompromissoTipo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CoalescenciaService Tests")
+class CoalescenciaServiceTest {
+
+    @Mock
+    private CompromissoService compromissoService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private CoalescenciaService coalescenciaService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescenciaService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(coalescenciaService, "janelaMs", 300L);
+        coalescenciaService.registrarMetricas();
+    }
+
+    private static CompromissoRequestDTO requisicao(String titulo) {
+        CompromissoRequestDTO dto = new CompromissoRequestDTO();
+        dto.setTitulo(titulo);
+        dto.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        dto.setTipo(CompromissoTipo.TRABALHO);
+        return dto;
+    }
+
+    private static CompromissoResponseDTO resposta(String titulo, long versao) {
+        CompromissoResponseDTO dto = new CompromissoResponseDTO();
+        dto.setId(1L);
+        dto.setTitulo(titulo);
+        dto.setVersao(versao);
+        return dto;
+    }
+
+    private void gravacaoDireta() {
+        when(compromissoService.atualizar(eq(1L), any(), eq("u1"), isNull())).thenReturn(resposta("V1", 1));
+        when(compromissoService.previa(eq(1L), any(), eq("u1"), anyLong()))
+                .thenAnswer(inv -> resposta(inv.<CompromissoRequestDTO>getArgument(1).getTitulo(), inv.getArgument(3)));
+    }
+
+    private Runnable fechamentoAgendado() {
+        ArgumentCaptor<Runnable> tarefa = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(tarefa.capture(), any(Instant.class));
+        return tarefa.getValue();
+    }
+
+    private double medida(String nome) {
+        return meterRegistry.get(nome).gauge().value();
+    }
+
+    @Test
+    @DisplayName("A burst should write the first PUT at once and only the last state when the window closes")
+    void burst_CoalescesIntoOneUpdate() {
+        gravacaoDireta();
+        CompromissoRequestDTO v3 = requisicao("V3");
+
+        assertEquals(1L, coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null).getVersao());
+        CompromissoResponseDTO segunda = coalescenciaService.atualizar(1L, requisicao("V2"), "u1", null);
+        CompromissoResponseDTO terceira = coalescenciaService.atualizar(1L, v3, "u1", null);
+
+        assertEquals(2L, segunda.getVersao());
+        assertEquals(2L, terceira.getVersao());
+        assertEquals("V3", terceira.getTitulo());
+        verify(compromissoService, times(1)).atualizar(any(), any(), any(), any());
+
+        fechamentoAgendado().run();
+
+        verify(compromissoService).atualizar(1L, v3, "u1", 1L);
+        assertEquals(1.5, medida("compromisso.coalescencia.razao"));
+        assertEquals(0.0, medida("compromisso.coalescencia.pendentes"));
+    }
+
+    @Test
+    @DisplayName("A PUT with If-Match should write the pending state and then go straight to the database")
+    void ifMatch_NaoAgrupa() {
+        gravacaoDireta();
+        CompromissoRequestDTO v2 = requisicao("V2");
+        CompromissoRequestDTO v3 = requisicao("V3");
+        when(compromissoService.atualizar(1L, v2, "u1", 1L)).thenReturn(resposta("V2", 2));
+        when(compromissoService.atualizar(1L, v3, "u1", 2L)).thenReturn(resposta("V3", 3));
+        coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null);
+        coalescenciaService.atualizar(1L, v2, "u1", null);
+
+        assertEquals(3L, coalescenciaService.atualizar(1L, v3, "u1", 2L).getVersao());
+
+        var ordem = inOrder(compromissoService);
+        ordem.verify(compromissoService).atualizar(1L, v2, "u1", 1L);
+        ordem.verify(compromissoService).atualizar(1L, v3, "u1", 2L);
+        assertEquals(0.0, medida("compromisso.coalescencia.pendentes"));
+    }
+
+    @Test
+    @DisplayName("Flushing a user should write the pending state and close the window")
+    void descarregar_WritesPendingState() {
+        gravacaoDireta();
+        CompromissoRequestDTO v2 = requisicao("V2");
+        coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null);
+        coalescenciaService.atualizar(1L, v2, "u1", null);
+
+        coalescenciaService.descarregar("u2");
+        verify(compromissoService, times(1)).atualizar(any(), any(), any(), any());
+
+        coalescenciaService.descarregar("u1");
+        verify(compromissoService).atualizar(1L, v2, "u1", 1L);
+
+        // A janela já fechou: o fechamento agendado não grava de novo
+        fechamentoAgendado().run();
+        verify(compromissoService, times(2)).atualizar(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A failed first write should not open a window")
+    void falhaNaPrimeira_NaoAbreJanela() {
+        when(compromissoService.atualizar(eq(1L), any(), eq("u1"), isNull()))
+                .thenThrow(new RecursoNaoEncontradoException("Compromisso não encontrado com ID: 1"))
+                .thenReturn(resposta("V1", 1));
+
+        assertThrows(RecursoNaoEncontradoException.class,
+                () -> coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null));
+        assertEquals(1L, coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null).getVersao());
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("A conflicting flush should be dropped and counted")
+    void flushConflitante_Descartado() {
+        gravacaoDireta();
+        when(compromissoService.atualizar(eq(1L), any(), eq("u1"), eq(1L)))
+                .thenThrow(new PreCondicaoFalhouException("O compromisso foi alterado por outra requisição"));
+        coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null);
+        coalescenciaService.atualizar(1L, requisicao("V2"), "u1", null);
+
+        fechamentoAgendado().run();
+
+        assertEquals(1.0, meterRegistry.get("compromisso.coalescencia.descartadas").counter().count());
+        assertEquals(0.0, medida("compromisso.coalescencia.pendentes"));
+
+        // A falha é informada uma vez, só ao dono, na requisição seguinte para o id
+        assertDoesNotThrow(() -> coalescenciaService.verificarFalha(1L, "u2"));
+        ConflitoException conflito = assertThrows(ConflitoException.class,
+                () -> coalescenciaService.atualizar(1L, requisicao("V3"), "u1", null));
+        assertTrue(conflito.getMessage().contains("alterado por outra requisição"));
+        assertEquals(1L, coalescenciaService.atualizar(1L, requisicao("V3"), "u1", null).getVersao());
+    }
+
+    @Test
+    @DisplayName("With the window disabled every PUT should go straight to the database")
+    void janelaDesligada_Direto() {
+        ReflectionTestUtils.setField(coalescenciaService, "janelaMs", 0L);
+        when(compromissoService.atualizar(eq(1L), any(), eq("u1"), isNull())).thenReturn(resposta("V1", 1));
+
+        coalescenciaService.atualizar(1L, requisicao("V1"), "u1", null);
+        coalescenciaService.atualizar(1L, requisicao("V2"), "u1", null);
+
+        verify(compromissoService, times(2)).atualizar(any(), any(), any(), any());
+        verifyNoInteractions(taskScheduler);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.backend.dto.CompromissoFiltroDTO;
+import com.example.backend.model.CompromissoStatus;
+import com.example.backend.model.CompromissoTipo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ExportacaoService Tests")
+class ExportacaoServiceTest {
+
+    @Test
+    @DisplayName("COPY query should only select the user's rows in export order")
+    void consultaCopy_SemFiltro() {
+        String sql = ExportacaoService.consultaCopy(7L, null);
+
+        assertTrue(sql.startsWith("SELECT c.id, "));
+        assertTrue(sql.endsWith(" FROM compromisso c WHERE c.user_id = 7 ORDER BY c.data_hora, c.id"));
+        assertTrue(sql.contains("'''' || c.titulo"));
+        assertTrue(sql.contains("to_char(c.data_hora, 'YYYY-MM-DD\"T\"HH24:MI')"));
+    }
+
+    @Test
+    @DisplayName("COPY query should turn every filter into a typed literal")
+    void consultaCopy_ComFiltro() {
+        CompromissoFiltroDTO filtro = new CompromissoFiltroDTO();
+        filtro.setTipo(List.of(CompromissoTipo.PERICIA, CompromissoTipo.TRABALHO));
+        filtro.setStatus(List.of(CompromissoStatus.PENDENTE));
+        filtro.setUrgente(false);
+        filtro.setFrom(LocalDateTime.of(2030, 1, 1, 0, 0));
+        filtro.setTo(LocalDateTime.of(2030, 2, 1, 8, 30));
+        filtro.setValorMin(new BigDecimal("1E+2"));
+        filtro.setValorMax(new BigDecimal("250.50"));
+
+        String sql = ExportacaoService.consultaCopy(7L, filtro);
+
+        assertTrue(sql.contains("WHERE c.user_id = 7 AND c.tipo IN ('PERICIA', 'TRABALHO') AND c.status IN ('PENDENTE')"
+                + " AND c.urgente IS NOT TRUE"
+                + " AND c.data_hora >= TIMESTAMP '2030-01-01T00:00' AND c.data_hora < TIMESTAMP '2030-02-01T08:30'"
+                + " AND c.valor >= 100 AND c.valor <= 250.50 ORDER BY"), sql);
+        assertFalse(sql.contains("?"));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CompromissoRequestDTO;
+import com.example.backend.dto.CompromissoResponseDTO;
+import com.example.backend.entity.ChaveIdempotencia;
+import com.example.backend.exception.RequisicaoInvalidaException;
+import com.example.backend.model.CompromissoTipo;
+import com.example.backend.repository.ChaveIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotenciaService Tests")
+class IdempotenciaServiceTest {
+
+    @Mock
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private IdempotenciaService idempotenciaService;
+
+    private final AtomicInteger criados = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(idempotenciaService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(idempotenciaService, "ttlHoras", 24L);
+        ReflectionTestUtils.setField(idempotenciaService, "cacheMaximo", 100);
+    }
+
+    private static CompromissoRequestDTO requisicao(String titulo) {
+        CompromissoRequestDTO dto = new CompromissoRequestDTO();
+        dto.setTitulo(titulo);
+        dto.setDataHora(LocalDateTime.of(2030, 1, 1, 9, 0));
+        dto.setTipo(CompromissoTipo.TRABALHO);
+        return dto;
+    }
+
+    private Supplier<CompromissoResponseDTO> criacao() {
+        return () -> {
+            CompromissoResponseDTO dto = new CompromissoResponseDTO();
+            dto.setId((long) criados.incrementAndGet());
+            dto.setTitulo("Reunião");
+            return dto;
+        };
+    }
+
+    @Test
+    @DisplayName("Same key should create once and replay from memory without reaching the table")
+    void sameKey_ReplaysFromMemory() {
+        IdempotenciaService.Resultado primeira = idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        IdempotenciaService.Resultado segunda = idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+
+        assertFalse(primeira.repetida());
+        assertTrue(segunda.repetida());
+        assertEquals(primeira.resposta().getId(), segunda.resposta().getId());
+        assertEquals(1, criados.get());
+        verify(chaveIdempotenciaRepository, times(1)).findByUsernameAndChave("u1", "k1");
+        verify(chaveIdempotenciaRepository, times(1)).saveAndFlush(any(ChaveIdempotencia.class));
+    }
+
+    @Test
+    @DisplayName("Keys should be scoped per user and a different body should be rejected")
+    void scopeAndBodyMismatch() {
+        idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u2", "k1", requisicao("Reunião"), criacao());
+        assertEquals(2, criados.get());
+
+        assertThrows(RequisicaoInvalidaException.class,
+                () -> idempotenciaService.executar("u1", "k1", requisicao("Outra"), criacao()));
+        assertThrows(RequisicaoInvalidaException.class,
+                () -> idempotenciaService.executar("u1", " ", requisicao("Reunião"), criacao()));
+        assertEquals(2, criados.get());
+    }
+
+    @Test
+    @DisplayName("A failed creation should not be cached")
+    void failure_NotCached() {
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.executar("u1", "k1", requisicao("Reunião"),
+                () -> {
+                    throw new IllegalStateException("falhou");
+                }));
+
+        IdempotenciaService.Resultado resultado = idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        assertFalse(resultado.repetida());
+        assertEquals(1, criados.get());
+    }
+
+    @Test
+    @DisplayName("Failed requests with ever-new keys should leave nothing behind in the cache")
+    void failures_DoNotGrowCache() {
+        for (int i = 0; i < 500; i++) {
+            assertThrows(IllegalStateException.class, () -> idempotenciaService.executar("u1", "k-" + criados.incrementAndGet(),
+                    requisicao("Reunião"), () -> {
+                        throw new IllegalStateException("falhou");
+                    }));
+        }
+
+        assertEquals(0, ((java.util.Map<?, ?>) ReflectionTestUtils.getField(idempotenciaService, "cache")).size());
+    }
+
+    @Test
+    @DisplayName("The cache should evict the least recently used key")
+    void eviction_LeastRecentlyUsed() {
+        ReflectionTestUtils.setField(idempotenciaService, "cacheMaximo", 2);
+        idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u1", "k2", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u1", "k3", requisicao("Reunião"), criacao());
+
+        // k1, usada por último, continua em memória; k2 foi descartada e volta a consultar a tabela
+        assertTrue(idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao()).repetida());
+        verify(chaveIdempotenciaRepository, times(1)).findByUsernameAndChave("u1", "k1");
+        idempotenciaService.executar("u1", "k2", requisicao("Reunião"), criacao());
+        verify(chaveIdempotenciaRepository, times(2)).findByUsernameAndChave("u1", "k2");
+    }
+
+    @Test
+    @DisplayName("Evicted keys should still be answered by the table")
+    void evictedKey_FallsBackToTable() {
+        ReflectionTestUtils.setField(idempotenciaService, "cacheMaximo", 2);
+        IdempotenciaService.Resultado original = idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u1", "k2", requisicao("Reunião"), criacao());
+        idempotenciaService.executar("u1", "k3", requisicao("Reunião"), criacao());
+
+        var captor = org.mockito.ArgumentCaptor.forClass(ChaveIdempotencia.class);
+        verify(chaveIdempotenciaRepository, times(3)).saveAndFlush(captor.capture());
+        ChaveIdempotencia k1 = captor.getAllValues().get(0);
+        when(chaveIdempotenciaRepository.findByUsernameAndChave("u1", "k1")).thenReturn(java.util.Optional.of(k1));
+
+        IdempotenciaService.Resultado repetida = idempotenciaService.executar("u1", "k1", requisicao("Reunião"), criacao());
+        assertTrue(repetida.repetida());
+        assertEquals(original.resposta().getId(), repetida.resposta().getId());
+        assertEquals(3, criados.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with the same key should wait for the first; other keys are not blocked")
+    void concurrentSameKey_RunsOnce() throws Exception {
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Supplier<CompromissoResponseDTO> lenta = () -> {
+            emAndamento.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return criacao().get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<IdempotenciaService.Resultado>> mesmas = new ArrayList<>();
+            mesmas.add(executor.submit(() -> idempotenciaService.executar("u1", "k1", requisicao("Reunião"), lenta)));
+            assertTrue(emAndamento.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 6; i++) {
+                mesmas.add(executor.submit(() -> idempotenciaService.executar("u1", "k1", requisicao("Reunião"), lenta)));
+            }
+
+            // Com a chave k1 em andamento, outra chave conclui normalmente
+            IdempotenciaService.Resultado outra = executor
+                    .submit(() -> idempotenciaService.executar("u1", "k2", requisicao("Reunião"), criacao()))
+                    .get(5, TimeUnit.SECONDS);
+            assertFalse(outra.repetida());
+
+            liberar.countDown();
+            long repetidas = 0;
+            Long id = null;
+            for (Future<IdempotenciaService.Resultado> f : mesmas) {
+                IdempotenciaService.Resultado r = f.get(10, TimeUnit.SECONDS);
+                repetidas += r.repetida() ? 1 : 0;
+                if (id == null) {
+                    id = r.resposta().getId();
+                }
+                assertEquals(id, r.resposta().getId());
+            }
+            assertEquals(6, repetidas);
+            assertEquals(2, criados.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    private static CsvReader leitor(String csv) {
+        return new CsvReader(new StringReader(csv), 1000);
+    }
+
+    @Test
+    @DisplayName("Should read plain records with \\n and \\r\\n line endings")
+    void plainRecords() throws IOException {
+        CsvReader reader = leitor("a,b,c\r\n1,,3\n");
+
+        assertEquals(List.of("a", "b", "c"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("1", "", "3"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Should read quoted fields with commas, doubled quotes and line breaks")
+    void quotedFields() throws IOException {
+        CsvReader reader = leitor("\"a,b\",\"diz \"\"oi\"\"\",\"linha 1\nlinha 2\"\nfim,\"\"");
+
+        assertEquals(List.of("a,b", "diz \"oi\"", "linha 1\nlinha 2"), reader.readRecord());
+        assertEquals(List.of("fim", ""), reader.readRecord());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Should read back what CsvUtils.sanitize writes")
+    void roundTripWithSanitize() throws IOException {
+        String original = "=SOMA(A1), \"citação\"\nsegunda linha";
+        CsvReader reader = leitor(CsvUtils.sanitize(original) + ",x\n");
+
+        List<String> registro = reader.readRecord();
+        assertEquals(original, CsvUtils.unsanitize(registro.get(0)));
+        assertEquals("x", registro.get(1));
+    }
+
+    @Test
+    @DisplayName("Should reject unterminated quotes and records over the limit")
+    void malformed() {
+        CsvReader semFim = leitor("ok\n\"sem fim");
+        assertDoesNotThrow(semFim::readRecord);
+        assertThrows(IllegalArgumentException.class, semFim::readRecord);
+        CsvReader curto = new CsvReader(new StringReader("x".repeat(20) + "\n"), 10);
+        assertThrows(IllegalArgumentException.class, curto::readRecord);
+    }
+
+    @Test
+    @DisplayName("Should stream a million records without materializing the input")
+    void millionRecords() throws IOException {
+        int total = 1_000_000;
+        CsvReader reader = new CsvReader(new BufferedReader(new RegistrosGerados(total), 64 * 1024), 1000);
+
+        long lidos = 0;
+        List<String> registro;
+        while ((registro = reader.readRecord()) != null) {
+            assertEquals(3, registro.size());
+            lidos++;
+        }
+        assertEquals(total, lidos);
+        assertEquals(total, reader.getRecordLine());
+    }
+
+    // Gera as linhas sob demanda: o arquivo inteiro nunca existe em memória
+    private static class RegistrosGerados extends Reader {
+        private final int total;
+        private int gerados;
+        private String atual = "";
+        private int posicao;
+
+        RegistrosGerados(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int read(char[] destino, int inicio, int tamanho) {
+            if (posicao == atual.length()) {
+                if (gerados == total) {
+                    return -1;
+                }
+                atual = gerados + ",\"Compromisso, " + gerados + "\",2030-01-01T09:00\n";
+                gerados++;
+                posicao = 0;
+            }
+            int n = Math.min(tamanho, atual.length() - posicao);
+            atual.getChars(posicao, posicao + n, destino, inicio);
+            posicao += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
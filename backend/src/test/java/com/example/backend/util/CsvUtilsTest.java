@@ -59,4 +59,16 @@ class CsvUtilsTest {
             org.junit.jupiter.params.provider.Arguments.of("@Version", "'@Version")
         );
     }
+
+    @ParameterizedTest
+    @CsvSource(quoteCharacter = '"', value = {
+        "'=1+1, =1+1",
+        "'@SUM(A1), @SUM(A1)",
+        "'texto, 'texto",
+        "Normal, Normal"
+    })
+    @DisplayName("Should revert only the CSV Injection prefix added by sanitize")
+    void unsanitize(String input, String expected) {
+        assertEquals(expected, CsvUtils.unsanitize(input));
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.backend.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.backend.model.CompromissoStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvWriterTest {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    private interface Fields {
+        void write(CsvWriter csv) throws IOException;
+    }
+
+    private static String write(int bufferSize, Fields fields) throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out, bufferSize);
+        fields.write(csv);
+        csv.flush();
+        return out.toString();
+    }
+
+    @ParameterizedTest
+    @CsvSource(quoteCharacter = '"', value = {
+            "Normal Text",
+            "text,with,comma",
+            "text with \"\"quotes\"\"",
+            "=1+1",
+            "+123",
+            "-10",
+            "@SUM(1+1)",
+            "=HYPERLINK(\"\"http://x\"\",\"\"y\"\")",
+            "'=already guarded",
+            "ação, reunião",
+            "x"
+    })
+    @DisplayName("Should escape text fields exactly like CsvUtils.sanitize")
+    void field_SameAsSanitize(String value) throws IOException {
+        assertEquals(CsvUtils.sanitize(value), write(4, csv -> csv.field(value)));
+    }
+
+    @Test
+    @DisplayName("Should write null and empty text as an empty field")
+    void field_NullAndEmpty() throws IOException {
+        assertEquals(",,", write(16, csv -> csv.field((String) null).field("").field((String) null)));
+    }
+
+    @Test
+    @DisplayName("Should match CsvUtils.sanitize on random text with any buffer size")
+    void field_RandomText() throws IOException {
+        Random random = new Random(7);
+        String alphabet = "ab ,\"\n\r=+-@'çã€";
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            int bufferSize = 1 + random.nextInt(64);
+            assertEquals(CsvUtils.sanitize(value.toString()), write(bufferSize, csv -> csv.field(value.toString())));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 7, 10, 42, -1, -90, 123_456_789_012L, Long.MAX_VALUE, Long.MIN_VALUE})
+    @DisplayName("Should write whole numbers like Long.toString")
+    void field_Long(long value) throws IOException {
+        assertEquals(Long.toString(value), write(2, csv -> csv.field(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "1.5", "150.25", "-3.0", "1E+3", "0.000001", "1E-7", "12345678901234567890.12"})
+    @DisplayName("Should write decimals like BigDecimal.toString")
+    void field_BigDecimal(String value) throws IOException {
+        BigDecimal decimal = new BigDecimal(value);
+        assertEquals(decimal.toString(), write(16, csv -> csv.field(decimal)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2030-01-05T09:03",
+            "1999-12-31T23:59:59",
+            "0001-01-01T00:00",
+            "9999-12-31T23:59",
+            "+10000-01-01T00:00",
+            "-0001-06-15T12:30"
+    })
+    @DisplayName("Should format dates exactly like the export DateTimeFormatter")
+    void field_LocalDateTime(String value) throws IOException {
+        LocalDateTime dataHora = LocalDateTime.parse(value);
+        assertEquals(DATE_TIME.format(dataHora), write(3, csv -> csv.field(dataHora)));
+    }
+
+    @Test
+    @DisplayName("Should join fields with commas and end rows with a line feed")
+    void rows() throws IOException {
+        String csv = write(8, w -> {
+            w.field("id").field("status").field("urgente").endRow();
+            w.field(1L).field(CompromissoStatus.PENDENTE).field(true).endRow();
+            w.field((Long) null).field((CompromissoStatus) null).field(false).field((BigDecimal) null)
+                    .field((LocalDateTime) null).endRow();
+        });
+
+        assertEquals("id,status,urgente\n1,PENDENTE,true\n,,false,,\n", csv);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty buffer")
+    void constructor_InvalidBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvWriter(new StringWriter(), 0));
+    }
+}
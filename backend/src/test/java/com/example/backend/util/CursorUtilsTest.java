@@ -0,0 +1,36 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorUtilsTest {
+
+    @Test
+    @DisplayName("Should round-trip key and id")
+    void encodeDecode_RoundTrip() {
+        String cursor = CursorUtils.encode("2030-01-01T09:00", 42L);
+        CursorUtils.Posicao posicao = CursorUtils.decode(cursor);
+
+        assertEquals("2030-01-01T09:00", posicao.chave());
+        assertEquals(42L, posicao.id());
+    }
+
+    @Test
+    @DisplayName("Should produce URL-safe cursors")
+    void encode_UrlSafe() {
+        String cursor = CursorUtils.encode("chave|com?caracteres/especiais+", 7L);
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+        assertEquals("chave|com?caracteres/especiais+", CursorUtils.decode(cursor).chave());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void decode_Malformed() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("***"));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(CursorUtils.encode("x", 1L).substring(1)));
+    }
+}
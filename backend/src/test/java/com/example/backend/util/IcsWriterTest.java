@@ -0,0 +1,105 @@
+package com.example.backend.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IcsWriterTest {
+
+    private interface Lines {
+        void write(IcsWriter ics) throws IOException;
+    }
+
+    private static String write(int bufferSize, Lines lines) throws IOException {
+        StringWriter out = new StringWriter();
+        IcsWriter ics = new IcsWriter(out, bufferSize);
+        lines.write(ics);
+        ics.flush();
+        return out.toString();
+    }
+
+    // Undoes RFC 5545 folding: CRLF followed by a space joins the lines
+    private static String unfold(String ics) {
+        return ics.replace("\r\n ", "");
+    }
+
+    @Test
+    @DisplayName("Should write components and properties as CRLF-terminated lines")
+    void shouldWriteContentLines() throws IOException {
+        String ics = write(16, w -> w.begin("VEVENT")
+                .property("UID", "compromisso-1@lifeos")
+                .property("SEQUENCE", 3)
+                .end("VEVENT"));
+
+        assertEquals("BEGIN:VEVENT\r\nUID:compromisso-1@lifeos\r\nSEQUENCE:3\r\nEND:VEVENT\r\n", ics);
+    }
+
+    @Test
+    @DisplayName("Should escape TEXT values and drop control characters")
+    void shouldEscapeText() throws IOException {
+        String ics = write(1024, w -> w.text("SUMMARY", "Perícia; sala 2, \\B\\\r\nsegunda\tlinha\u0000"));
+
+        assertEquals("SUMMARY:Perícia\\; sala 2\\, \\\\B\\\\\\nsegunda\tlinha\r\n", ics);
+    }
+
+    @Test
+    @DisplayName("Should skip null or empty TEXT values")
+    void shouldSkipEmptyText() throws IOException {
+        assertEquals("", write(1024, w -> w.text("DESCRIPTION", null).text("DESCRIPTION", "")));
+    }
+
+    @Test
+    @DisplayName("Should write floating and UTC date-times")
+    void shouldWriteDateTimes() throws IOException {
+        String ics = write(16, w -> w
+                .property("DTSTART", LocalDateTime.of(2030, 1, 2, 9, 5, 7))
+                .property("DTSTAMP", Instant.parse("2029-12-31T23:59:58Z")));
+
+        assertEquals("DTSTART:20300102T090507\r\nDTSTAMP:20291231T235958Z\r\n", ics);
+    }
+
+    @Test
+    @DisplayName("Should reject years that do not fit four digits")
+    void shouldRejectFiveDigitYears() {
+        assertThrows(IllegalArgumentException.class,
+                () -> write(1024, w -> w.property("DTSTART", LocalDateTime.of(10000, 1, 1, 0, 0))));
+    }
+
+    @Test
+    @DisplayName("Should fold lines at 75 octets without splitting UTF-8 characters")
+    void shouldFoldLongLines() throws IOException {
+        String titulo = "Audiência de conciliação ☕ com 😀 e açúcar ".repeat(8);
+        String ics = write(16, w -> w.text("SUMMARY", titulo));
+
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+            assertTrue(!line.isEmpty() && !Character.isLowSurrogate(line.charAt(0)), line);
+        }
+        assertEquals("SUMMARY:" + titulo + "\r\n", unfold(ics));
+    }
+
+    @Test
+    @DisplayName("Should fill the first line up to exactly 75 octets")
+    void shouldUseWholeFirstLine() throws IOException {
+        String ics = write(1024, w -> w.property("X-A", "x".repeat(100)));
+
+        String[] lines = ics.split("\r\n");
+        assertEquals(75, lines[0].length());
+        assertEquals(" " + "x".repeat(100 - 71), lines[1]);
+    }
+
+    @Test
+    @DisplayName("Should reject buffers smaller than a date-time")
+    void shouldRejectTinyBuffer() {
+        assertThrows(IllegalArgumentException.class, () -> new IcsWriter(new StringWriter(), 15));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankUtilsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "i, r",
+            "i, j",
+            "i, i1",
+            "a, azzzz1",
+            "0001, 0002",
+            "zzzy, zzzz",
+            "00001, 1"
+    })
+    @DisplayName("Should generate a key strictly between two keys")
+    void between_StrictlyBetween(String before, String after) {
+        String key = RankUtils.between(before, after);
+
+        assertTrue(before.compareTo(key) < 0, key);
+        assertTrue(key.compareTo(after) < 0, key);
+        assertTrue(RankUtils.isValid(key), key);
+    }
+
+    @Test
+    @DisplayName("Should generate keys at either end of the list")
+    void between_OpenEnds() {
+        String primeira = RankUtils.between(null, null);
+        String inicio = RankUtils.between(null, primeira);
+        String fim = RankUtils.between(primeira, null);
+
+        assertTrue(inicio.compareTo(primeira) < 0);
+        assertTrue(primeira.compareTo(fim) < 0);
+        assertTrue(RankUtils.isValid(inicio) && RankUtils.isValid(fim));
+    }
+
+    @Test
+    @DisplayName("Should keep keys short when appending one by one")
+    void between_AppendKeepsKeysShort() {
+        String ultima = null;
+        for (int i = 0; i < 1000; i++) {
+            String key = RankUtils.between(ultima, null);
+            if (ultima != null) {
+                assertTrue(ultima.compareTo(key) < 0);
+            }
+            ultima = key;
+        }
+        assertTrue(ultima.length() <= 4, ultima);
+    }
+
+    @Test
+    @DisplayName("Should generate evenly spaced increasing keys for a whole list")
+    void between_Sequence() {
+        List<String> keys = RankUtils.between(null, null, 10_000);
+
+        assertEquals(10_000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+        assertTrue(keys.stream().allMatch(RankUtils::isValid));
+        assertTrue(keys.stream().allMatch(k -> k.length() <= 4));
+        assertEquals(List.of(), RankUtils.between(null, null, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep a consistent order under random insertions")
+    void between_RandomInsertions() {
+        Random random = new Random(42);
+        List<String> lista = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int posicao = random.nextInt(lista.size() + 1);
+            String before = posicao > 0 ? lista.get(posicao - 1) : null;
+            String after = posicao < lista.size() ? lista.get(posicao) : null;
+            lista.add(posicao, RankUtils.between(before, after));
+        }
+
+        assertEquals(lista.stream().sorted().toList(), lista);
+        assertEquals(lista.size(), lista.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed or out-of-order bounds")
+    void between_InvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between("r", "i"));
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between("i", "i"));
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between("i0", null));
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between("I", null));
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between(null, "a-b"));
+        assertThrows(IllegalArgumentException.class, () -> RankUtils.between(null, null, -1));
+    }
+
+    @Test
+    @DisplayName("Should validate key format")
+    void isValid_Format() {
+        assertTrue(RankUtils.isValid("0i"));
+        assertFalse(RankUtils.isValid(""));
+        assertFalse(RankUtils.isValid(null));
+        assertFalse(RankUtils.isValid("a0"));
+        assertFalse(RankUtils.isValid("aB"));
+        assertFalse(RankUtils.isValid("a|b"));
+    }
+}